@@ -2,8 +2,12 @@ package org.cms.carrental;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// Kimlik doğrulama JWT filtresi ve AuthService üzerinden - varsayılan bellek içi kullanıcı oluşturulmasın
+@SpringBootApplication(exclude = UserDetailsServiceAutoConfiguration.class)
+@EnableScheduling
 public class CarRentalApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,62 @@
+package org.cms.carrental.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * id_generators tablosunu mevcut verinin üzerine taşır.
+ *
+ * Entity'ler IDENTITY yerine pooled tablo üreteci kullanır (JDBC batch insert için).
+ * IDENTITY döneminden kalan satırlarla çakışmamak için her üreteç en az
+ * MAX(id) + allocationSize + 1 değerinden başlatılır. Bean'ler hazır olduktan sonra,
+ * web sunucusu istek almaya başlamadan önce çalışır.
+ * Değer sadece ileri alınır (GREATEST): aynı anda açılan veya id almış başka bir instance'ın
+ * ilerlettiği değer geri çekilmez.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdGeneratorSeeder implements SmartInitializingSingleton {
+
+    // Entity'lerdeki @TableGenerator allocationSize ile aynı olmalı
+    private static final int ALLOCATION_SIZE = 50;
+
+    // pkColumnValue = tablo adı
+    private static final List<String> TABLES = List.of("users", "categories", "cars", "reservations", "rentals");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String table : TABLES) {
+            seed(table);
+        }
+    }
+
+    void seed(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long required = (maxId != null ? maxId : 0L) + ALLOCATION_SIZE + 1;
+
+        if (raise(table, required)) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO id_generators (gen_name, next_val) VALUES (?, ?)", table, required);
+            log.info("ID generator for {} initialized at {}", table, required);
+        } catch (DuplicateKeyException e) {
+            // Başka bir instance satırı az önce ekledi
+            raise(table, required);
+        }
+    }
+
+    private boolean raise(String table, long required) {
+        return jdbcTemplate.update("UPDATE id_generators SET next_val = GREATEST(COALESCE(next_val, 0), ?) WHERE gen_name = ?",
+                required, table) > 0;
+    }
+}
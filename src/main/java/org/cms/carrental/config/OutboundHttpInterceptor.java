@@ -0,0 +1,165 @@
+package org.cms.carrental.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dış HTTP çağrıları için host başına eşzamanlılık limiti ve gecikme histogramları
+ *
+ * outbound.http.headers: bağlantı + istek + cevap başlıklarının gelmesine kadar geçen süre
+ * outbound.http.body: başlıklardan cevap gövdesinin okunup kapatılmasına kadar geçen süre
+ * İzin (permit) cevap kapatılınca bırakılır; limit dolarsa acquire-timeout kadar beklenir.
+ */
+@Component
+public class OutboundHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxPerHost;
+    private final long acquireTimeoutNanos;
+
+    private final Map<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+
+    public OutboundHttpInterceptor(MeterRegistry meterRegistry,
+                                   @Value("${app.http.client.max-per-host:16}") int maxPerHost,
+                                   @Value("${app.http.client.acquire-timeout:2s}") Duration acquireTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.maxPerHost = maxPerHost;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        String host = request.getURI().getHost();
+        Semaphore permits = permitsByHost.computeIfAbsent(host, h -> new Semaphore(maxPerHost, true));
+        acquire(permits, host);
+
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            timer("outbound.http.headers", host, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return new MeteredResponse(response, host, permits);
+        } catch (IOException | RuntimeException e) {
+            timer("outbound.http.headers", host, "failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire(Semaphore permits, String host) throws IOException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                Counter.builder("outbound.http.rejected")
+                        .description("Outbound requests rejected by the per-host concurrency limit")
+                        .tag("host", host)
+                        .register(meterRegistry)
+                        .increment();
+                throw new IOException("Too many concurrent requests to " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection slot to " + host);
+        }
+    }
+
+    private Timer timer(String name, String host, String outcome) {
+        return Timer.builder(name)
+                .tag("host", host)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Kapatıldığında gövde süresini kaydeder ve izni bırakır (bir kez)
+     */
+    private final class MeteredResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final String host;
+        private final Semaphore permits;
+        private final long headersReceivedAt = System.nanoTime();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean bodyFailed;
+
+        private MeteredResponse(ClientHttpResponse delegate, String host, Semaphore permits) {
+            this.delegate = delegate;
+            this.host = host;
+            this.permits = permits;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return new FilterInputStream(delegate.getBody()) {
+                @Override
+                public int read() throws IOException {
+                    try {
+                        return super.read();
+                    } catch (IOException e) {
+                        bodyFailed = true;
+                        throw e;
+                    }
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    try {
+                        return super.read(b, off, len);
+                    } catch (IOException e) {
+                        bodyFailed = true;
+                        throw e;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                delegate.close();
+            } finally {
+                timer("outbound.http.body", host, bodyFailed ? "failure" : "success")
+                        .record(System.nanoTime() - headersReceivedAt, TimeUnit.NANOSECONDS);
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package org.cms.carrental.config;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.entity.Car;
+import org.cms.carrental.entity.Category;
+import org.cms.carrental.entity.Rental;
+import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.entity.User;
+import org.cms.carrental.repository.CarRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * perf profili - gömülü veritabanını tekrarlanabilir test verisiyle doldurur.
+ *
+ * Tüm rastgele değerler önce sabit seed'li tek bir Random ile planlanır (plan), sonra
+ * BATCH_SIZE'lık JDBC batch'lerle yazılır; aynı seed ve sayılar aynı veriyi üretir.
+ * Tarihler çalıştırılan güne göredir (sabit tarih için app.perf.seed.today).
+ * Veritabanında araç varsa hiçbir şey yapılmaz. İndeksler açılışta bu veriden yüklenir.
+ */
+@Component
+@Profile("perf")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class PerfDataSeeder implements CommandLineRunner {
+
+    // hibernate.jdbc.batch_size ile aynı
+    private static final int BATCH_SIZE = 50;
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String[] CATEGORY_NAMES = {
+            "Economy", "Compact", "Midsize", "SUV", "Premium", "Luxury", "Van", "Electric"};
+    private static final double[] CATEGORY_BASE_PRICES = {
+            450, 600, 800, 1100, 1600, 2800, 1300, 1200};
+    private static final String[][] MODELS = {
+            {"Fiat", "Egea"}, {"Renault", "Clio"}, {"Toyota", "Corolla"}, {"Volkswagen", "Golf"},
+            {"Hyundai", "i20"}, {"Ford", "Focus"}, {"Peugeot", "3008"}, {"Dacia", "Duster"},
+            {"BMW", "320i"}, {"Mercedes", "C200"}, {"Tesla", "Model 3"}, {"Ford", "Transit"}};
+    private static final String[] FUEL_TYPES = {"Gasoline", "Diesel", "Hybrid", "Electric"};
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final CarRepository carRepository;
+    private final Settings settings;
+    private final String password;
+    private final String today;
+
+    public PerfDataSeeder(EntityManager entityManager,
+                          TransactionTemplate transactionTemplate,
+                          PasswordEncoder passwordEncoder,
+                          CarRepository carRepository,
+                          @Value("${app.perf.seed.random-seed:42}") long randomSeed,
+                          @Value("${app.perf.seed.categories:8}") int categories,
+                          @Value("${app.perf.seed.users:5000}") int users,
+                          @Value("${app.perf.seed.cars:2000}") int cars,
+                          @Value("${app.perf.seed.reservations:50000}") int reservations,
+                          @Value("${app.perf.seed.rentals:30000}") int rentals,
+                          @Value("${app.perf.seed.history-days:365}") int historyDays,
+                          @Value("${app.perf.seed.future-days:90}") int futureDays,
+                          @Value("${app.perf.seed.password:perf123}") String password,
+                          @Value("${app.perf.seed.today:}") String today) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.carRepository = carRepository;
+        this.settings = new Settings(randomSeed, categories, users, cars, reservations, rentals, historyDays, futureDays);
+        this.password = password;
+        this.today = today;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (carRepository.count() > 0) {
+            log.info("Perf seed skipped: database already has cars");
+            return;
+        }
+        long started = System.nanoTime();
+        Plan plan = plan(settings, today.isBlank() ? LocalDate.now() : LocalDate.parse(today));
+
+        // Tüm kullanıcılar aynı şifre - BCrypt bir kez
+        String encodedPassword = passwordEncoder.encode(password);
+
+        List<Long> categoryIds = persistAll(settings.categories(), this::newCategory, Category::getId);
+        List<Long> userIds = persistAll(settings.users(), i -> newUser(i, encodedPassword), User::getId);
+        List<Long> carIds = persistAll(plan.cars().size(),
+                i -> newCar(plan.cars().get(i), categoryIds), Car::getId);
+        List<Long> reservationIds = persistAll(plan.reservations().size(),
+                i -> newReservation(plan.reservations().get(i), userIds, carIds), Reservation::getId);
+
+        List<Integer> withRental = new ArrayList<>();
+        for (int i = 0; i < plan.reservations().size(); i++) {
+            if (plan.reservations().get(i).rental() != null) {
+                withRental.add(i);
+            }
+        }
+        persistAll(withRental.size(), i -> {
+            int idx = withRental.get(i);
+            return newRental(plan.reservations().get(idx).rental(), reservationIds.get(idx));
+        }, Rental::getId);
+
+        log.info("Perf seed finished in {} ms: {} categories, {} users, {} cars, {} reservations, {} rentals (seed {})",
+                (System.nanoTime() - started) / 1_000_000, categoryIds.size(), userIds.size(), carIds.size(),
+                reservationIds.size(), withRental.size(), settings.randomSeed());
+        log.info("Perf users: user00001@perf.local .. user{}@perf.local, password: {}",
+                String.format("%05d", settings.users()), password);
+    }
+
+    /**
+     * Verinin tamamı - sadece seed, sayılar ve bugüne bağlı.
+     *
+     * Her aracın rezervasyonları zaman sırasıyla, çakışmadan dizilir (history-days önceden
+     * future-days sonrasına kadar). Süreler çoğunlukla kısa (ortalama ~4 gece), bazı kullanıcılar
+     * çok daha sık kiralar. Geçmiş rezervasyonlar çoğunlukla COMPLETED, bugünü kapsayanlar
+     * CONFIRMED (araç teslim edilmiş), gelecektekiler PENDING/CONFIRMED; her dönemde bir kısmı CANCELLED.
+     * Kiralamalar teslim edilmiş rezervasyonlar arasından eşit aralıklarla en fazla rentals kadar seçilir.
+     */
+    static Plan plan(Settings settings, LocalDate today) {
+        Random random = new Random(settings.randomSeed());
+        int carCount = settings.cars();
+
+        List<CarSpec> cars = new ArrayList<>(carCount);
+        int[] odometer = new int[carCount];
+        for (int i = 0; i < carCount; i++) {
+            int category = random.nextInt(settings.categories());
+            String[] model = MODELS[random.nextInt(MODELS.length)];
+            double basePrice = CATEGORY_BASE_PRICES[category % CATEGORY_BASE_PRICES.length];
+            double dailyPrice = Math.round(basePrice * (0.85 + random.nextDouble() * 0.3));
+            cars.add(new CarSpec(category, model[0], model[1], 2015 + random.nextInt(11),
+                    String.format("%02d PRF %05d", 1 + i % 81, i + 1), dailyPrice,
+                    FUEL_TYPES[random.nextInt(FUEL_TYPES.length)],
+                    random.nextInt(3) == 0 ? "Manual" : "Automatic",
+                    category == 6 ? 8 : 5,
+                    random.nextInt(100) < 3 ? Car.CarStatus.MAINTENANCE : Car.CarStatus.AVAILABLE));
+            odometer[i] = 5_000 + random.nextInt(75_000);
+        }
+
+        List<ReservationSpec> reservations = new ArrayList<>(settings.reservations());
+        List<Integer> delivered = new ArrayList<>();
+        if (carCount > 0 && settings.users() > 0) {
+            int perCar = Math.max(1, (settings.reservations() + carCount - 1) / carCount);
+            int window = settings.historyDays() + settings.futureDays();
+            int meanGap = Math.max(0, window / perCar - 5);
+
+            LocalDate[] cursor = new LocalDate[carCount];
+            for (int c = 0; c < carCount; c++) {
+                cursor[c] = today.minusDays(settings.historyDays()).plusDays(random.nextInt(meanGap + 1));
+            }
+
+            for (int i = 0; i < settings.reservations(); i++) {
+                int carIndex = i % carCount;
+                CarSpec car = cars.get(carIndex);
+                // Kısa kiralamalar ağırlıklı: üstel dağılım, 1-28 gece
+                int nights = 1 + Math.min(27, (int) (-Math.log(1 - random.nextDouble()) * 3.0));
+                LocalDate start = cursor[carIndex].plusDays(meanGap > 0 ? random.nextInt(2 * meanGap + 1) : 0);
+                LocalDate end = start.plusDays(nights);
+                cursor[carIndex] = end.plusDays(1);
+
+                // Sık kiralayan az sayıda kullanıcı (düşük indeksler)
+                int userIndex = (int) (settings.users() * Math.pow(random.nextDouble(), 2));
+                int roll = random.nextInt(100);
+
+                Reservation.ReservationStatus status;
+                RentalSpec rental = null;
+                if (end.isBefore(today)) {
+                    boolean lateReturn = !end.isBefore(today.minusDays(7)) && roll < 10;
+                    if (roll >= 88) {
+                        status = Reservation.ReservationStatus.CANCELLED;
+                    } else if (lateReturn) {
+                        // Henüz iade edilmemiş - gecikmiş kiralama; araç bugüne kadar başkasına verilmez
+                        status = Reservation.ReservationStatus.CONFIRMED;
+                        rental = pickedUp(random, start, end, odometer[carIndex]);
+                        cursor[carIndex] = today.plusDays(1);
+                    } else {
+                        status = Reservation.ReservationStatus.COMPLETED;
+                        rental = returned(random, car, start, end, nights, odometer, carIndex);
+                    }
+                } else if (!start.isAfter(today)) {
+                    if (roll < 5) {
+                        status = Reservation.ReservationStatus.CANCELLED;
+                    } else {
+                        status = Reservation.ReservationStatus.CONFIRMED;
+                        rental = pickedUp(random, start, end, odometer[carIndex]);
+                    }
+                } else if (roll < 15) {
+                    status = Reservation.ReservationStatus.CANCELLED;
+                } else {
+                    status = roll < 45 ? Reservation.ReservationStatus.PENDING : Reservation.ReservationStatus.CONFIRMED;
+                }
+
+                if (rental != null) {
+                    delivered.add(reservations.size());
+                }
+                reservations.add(new ReservationSpec(userIndex, carIndex, start, end,
+                        car.dailyPrice() * nights, status, rental));
+            }
+        }
+
+        // rentals sınırı: teslim edilenlerden eşit aralıklarla seç, gerisinin kiralaması yok
+        if (delivered.size() > settings.rentals()) {
+            boolean[] keep = new boolean[delivered.size()];
+            for (int k = 0; k < settings.rentals(); k++) {
+                keep[(int) ((long) k * delivered.size() / settings.rentals())] = true;
+            }
+            for (int k = 0; k < delivered.size(); k++) {
+                if (!keep[k]) {
+                    int idx = delivered.get(k);
+                    reservations.set(idx, reservations.get(idx).withoutRental());
+                }
+            }
+        }
+
+        // Teslim edilmiş (iade edilmemiş) kiralaması olan araçlar RENTED
+        for (ReservationSpec reservation : reservations) {
+            if (reservation.rental() != null && reservation.rental().status() == Rental.RentalStatus.PICKED_UP) {
+                cars.set(reservation.carIndex(), cars.get(reservation.carIndex()).withStatus(Car.CarStatus.RENTED));
+            }
+        }
+        return new Plan(cars, reservations);
+    }
+
+    private static RentalSpec pickedUp(Random random, LocalDate start, LocalDate end, int mileage) {
+        return new RentalSpec(start.atTime(9 + random.nextInt(4), random.nextInt(60)), end.atTime(12, 0),
+                null, mileage, null, 0.0, Rental.RentalStatus.PICKED_UP);
+    }
+
+    private static RentalSpec returned(Random random, CarSpec car, LocalDate start, LocalDate end, int nights,
+                                       int[] odometer, int carIndex) {
+        int initial = odometer[carIndex];
+        odometer[carIndex] += nights * (40 + random.nextInt(260));
+        boolean late = random.nextInt(100) < 8;
+        LocalDateTime actualReturn = late
+                ? end.plusDays(1).atTime(9 + random.nextInt(8), random.nextInt(60))
+                : end.atTime(8 + random.nextInt(4), random.nextInt(60));
+        return new RentalSpec(start.atTime(9 + random.nextInt(4), random.nextInt(60)), end.atTime(12, 0),
+                actualReturn, initial, odometer[carIndex], late ? car.dailyPrice() : 0.0,
+                Rental.RentalStatus.RETURNED);
+    }
+
+    /**
+     * count adet entity'yi CHUNK_SIZE'lık transaction'larda, BATCH_SIZE'da bir flush ederek yazar
+     */
+    private <T> List<Long> persistAll(int count, IntFunction<T> factory, Function<T, Long> idOf) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += CHUNK_SIZE) {
+            int start = from;
+            int end = Math.min(from + CHUNK_SIZE, count);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<T> batch = new ArrayList<>(BATCH_SIZE);
+                for (int i = start; i < end; i++) {
+                    T entity = factory.apply(i);
+                    entityManager.persist(entity);
+                    batch.add(entity);
+                    if (batch.size() == BATCH_SIZE || i == end - 1) {
+                        entityManager.flush();
+                        batch.forEach(e -> ids.add(idOf.apply(e)));
+                        batch.clear();
+                        entityManager.clear();
+                    }
+                }
+            });
+        }
+        return ids;
+    }
+
+    private Category newCategory(int i) {
+        Category category = new Category();
+        String name = CATEGORY_NAMES[i % CATEGORY_NAMES.length];
+        category.setName(i < CATEGORY_NAMES.length ? name : name + " " + (i / CATEGORY_NAMES.length + 1));
+        category.setDescription(name + " cars");
+        return category;
+    }
+
+    private User newUser(int i, String encodedPassword) {
+        String number = String.format("%05d", i + 1);
+        User user = new User();
+        user.setName("Perf User " + number);
+        user.setEmail("user" + number + "@perf.local");
+        user.setPassword(encodedPassword);
+        user.setPhone("0555" + String.format("%07d", i + 1));
+        user.setAddress("Perf Street " + (i % 500 + 1));
+        user.setDriverLicense("DL" + number);
+        user.setRole(User.Role.USER);
+        return user;
+    }
+
+    private Car newCar(CarSpec spec, List<Long> categoryIds) {
+        Car car = new Car();
+        car.setBrand(spec.brand());
+        car.setModel(spec.model());
+        car.setYear(spec.year());
+        car.setPlate(spec.plate());
+        car.setDailyPrice(spec.dailyPrice());
+        car.setStatus(spec.status());
+        car.setFuelType(spec.fuelType());
+        car.setTransmissionType(spec.transmissionType());
+        car.setSeatCount(spec.seatCount());
+        car.setCategory(entityManager.getReference(Category.class, categoryIds.get(spec.categoryIndex())));
+        return car;
+    }
+
+    private Reservation newReservation(ReservationSpec spec, List<Long> userIds, List<Long> carIds) {
+        Reservation reservation = new Reservation();
+        reservation.setStartDate(spec.startDate());
+        reservation.setEndDate(spec.endDate());
+        reservation.setTotalPrice(spec.totalPrice());
+        reservation.setStatus(spec.status());
+        reservation.setUser(entityManager.getReference(User.class, userIds.get(spec.userIndex())));
+        reservation.setCar(entityManager.getReference(Car.class, carIds.get(spec.carIndex())));
+        return reservation;
+    }
+
+    private Rental newRental(RentalSpec spec, Long reservationId) {
+        Rental rental = new Rental();
+        rental.setPickupDate(spec.pickupDate());
+        rental.setReturnDate(spec.returnDate());
+        rental.setActualReturnDate(spec.actualReturnDate());
+        rental.setInitialMileage(spec.initialMileage());
+        rental.setFinalMileage(spec.finalMileage());
+        rental.setAdditionalCharges(spec.additionalCharges());
+        rental.setStatus(spec.status());
+        rental.setReservation(entityManager.getReference(Reservation.class, reservationId));
+        return rental;
+    }
+
+    record Settings(long randomSeed, int categories, int users, int cars, int reservations, int rentals,
+                    int historyDays, int futureDays) {
+    }
+
+    record Plan(List<CarSpec> cars, List<ReservationSpec> reservations) {
+    }
+
+    record CarSpec(int categoryIndex, String brand, String model, int year, String plate, double dailyPrice,
+                   String fuelType, String transmissionType, int seatCount, Car.CarStatus status) {
+
+        CarSpec withStatus(Car.CarStatus newStatus) {
+            return new CarSpec(categoryIndex, brand, model, year, plate, dailyPrice, fuelType, transmissionType,
+                    seatCount, newStatus);
+        }
+    }
+
+    record ReservationSpec(int userIndex, int carIndex, LocalDate startDate, LocalDate endDate, double totalPrice,
+                           Reservation.ReservationStatus status, RentalSpec rental) {
+
+        ReservationSpec withoutRental() {
+            return new ReservationSpec(userIndex, carIndex, startDate, endDate, totalPrice, status, null);
+        }
+    }
+
+    record RentalSpec(LocalDateTime pickupDate, LocalDateTime returnDate, LocalDateTime actualReturnDate,
+                      Integer initialMileage, Integer finalMileage, double additionalCharges,
+                      Rental.RentalStatus status) {
+    }
+}
@@ -0,0 +1,65 @@
+package org.cms.carrental.config;
+
+import org.cms.carrental.security.AuthenticatedUser;
+import org.cms.carrental.security.ExpiringCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * "Kendi yazdığını oku" penceresi - rezervasyon yapan kullanıcının okumaları bir süre
+ * replikaya değil primary'ye gider (replika henüz yetişmemiş olabilir).
+ */
+@Component
+public class RecentWriters {
+
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final ExpiringCache<Long, Boolean> writers;
+
+    @Autowired
+    public RecentWriters(@Value("${app.datasource.replica.read-your-writes-window:10s}") Duration window) {
+        this(window, System::currentTimeMillis);
+    }
+
+    RecentWriters(Duration window, LongSupplier clock) {
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.writers = new ExpiringCache<>(100_000, clock);
+    }
+
+    /**
+     * Commit sonrası çağrılmalı - pencere yazının görünür olduğu andan başlar
+     */
+    public void markWrite(Long userId) {
+        if (userId != null) {
+            writers.put(userId, Boolean.TRUE, clock.getAsLong() + windowMillis);
+        }
+    }
+
+    public boolean wroteRecently(Long userId) {
+        return userId != null && writers.get(userId) != null;
+    }
+
+    public boolean currentUserWroteRecently() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null
+                && authentication.getPrincipal() instanceof AuthenticatedUser principal
+                && wroteRecently(principal.id());
+    }
+
+    /**
+     * İsteği yapan kullanıcının id'si (token'dan), yoksa null
+     */
+    public static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal
+                ? principal.id()
+                : null;
+    }
+}
@@ -0,0 +1,29 @@
+package org.cms.carrental.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Okuma replikası bağlantısı ve gecikme kontrolü (app.datasource.replica.*)
+ */
+@ConfigurationProperties(prefix = "app.datasource.replica")
+@Data
+public class ReplicaDataSourceProperties {
+
+    private boolean enabled;
+
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    private int maximumPoolSize = 10;
+
+    // Bu kadar geride kalan replikaya okuma gönderilmez
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // Gecikmeyi saniye olarak döndüren sorgu ve kolon (MySQL 8: SHOW REPLICA STATUS)
+    private String lagQuery = "SHOW REPLICA STATUS";
+    private String lagColumn = "Seconds_Behind_Source";
+}
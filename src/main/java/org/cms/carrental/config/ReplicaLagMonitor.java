@@ -0,0 +1,72 @@
+package org.cms.carrental.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Replika gecikmesini periyodik olarak okur; sınır aşılırsa, değer okunamazsa (replikasyon durmuş)
+ * veya replikaya bağlanılamazsa okumalar primary'ye döner.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replica;
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ReplicaDataSourceProperties properties;
+
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource,
+                             ReplicaRoutingDataSource routingDataSource,
+                             ReplicaDataSourceProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replica.setQueryTimeout(2);
+        this.routingDataSource = routingDataSource;
+        this.properties = properties;
+
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.available", routingDataSource, ds -> ds.isReplicaAvailable() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:PT5S}")
+    public void check() {
+        Double lag = readLagSeconds();
+        lagSeconds = lag != null ? lag : Double.NaN;
+
+        Duration maxLag = properties.getMaxLag();
+        boolean available = lag != null && lag * 1000 <= maxLag.toMillis();
+        if (available != routingDataSource.isReplicaAvailable()) {
+            if (available) {
+                log.info("Read replica is back (lag {}s), routing read-only transactions to it", lag);
+            } else {
+                log.warn("Read replica unavailable or lagging (lag {}s, max {}), reading from primary", lag, maxLag);
+            }
+        }
+        routingDataSource.setReplicaAvailable(available);
+    }
+
+    private Double readLagSeconds() {
+        try {
+            return replica.query(properties.getLagQuery(), rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                Object value = rs.getObject(properties.getLagColumn());
+                return value instanceof Number number ? number.doubleValue() : null;
+            });
+        } catch (RuntimeException e) {
+            log.debug("Replica lag check failed: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.cms.carrental.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read-only transaction'ları replikaya, diğer her şeyi primary'ye yönlendirir.
+ *
+ * Fiziksel bağlantı ilk SQL'de alınsın diye LazyConnectionDataSourceProxy arkasında kullanılmalı;
+ * aksi halde transaction'ın read-only bilgisi bağlantı seçilirken henüz set edilmemiş olur.
+ * Replika gecikmesi sınırı aşınca (ReplicaLagMonitor) veya kullanıcı yakın zamanda yazdıysa primary'den okunur.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final RecentWriters recentWriters;
+
+    // İlk gecikme kontrolü başarılı olana kadar replika kullanılmaz
+    private volatile boolean replicaAvailable;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, RecentWriters recentWriters) {
+        this.recentWriters = recentWriters;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public void setReplicaAvailable(boolean replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !replicaAvailable
+                || recentWriters.currentUserWroteRecently()) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+}
@@ -1,20 +1,46 @@
 package org.cms.carrental.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Dış servis çağrıları (döviz kuru API'si) için HTTP istemcisi
+ *
+ * JDK HttpClient bağlantıları havuzlar ve keep-alive ile yeniden kullanır; işleri virtual
+ * thread'lerde yürütür. Host başına eşzamanlılık limiti ve gecikme metrikleri
+ * OutboundHttpInterceptor'dadır.
+ */
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(10000); // 10 seconds
-        factory.setReadTimeout(10000);     // 10 seconds
+    public HttpClient outboundHttpClient(
+            @Value("${app.http.client.connect-timeout:5s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                // Küçük JSON cevapları için HTTP/1.1 keep-alive yeterli; düz http'de h2c upgrade denemesini de önler
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
 
-        return new RestTemplate(factory);
+    @Bean
+    public RestTemplate restTemplate(HttpClient outboundHttpClient,
+                                     OutboundHttpInterceptor outboundHttpInterceptor,
+                                     @Value("${app.http.client.read-timeout:10s}") Duration readTimeout) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(outboundHttpClient);
+        factory.setReadTimeout(readTimeout);
+
+        RestTemplate restTemplate = new RestTemplate(factory);
+        restTemplate.getInterceptors().add(outboundHttpInterceptor);
+        return restTemplate;
     }
 }
-
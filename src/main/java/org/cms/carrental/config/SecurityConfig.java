@@ -1,13 +1,11 @@
 package org.cms.carrental.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
-import org.cms.carrental.security.CustomUserDetailsService;
 import org.cms.carrental.security.JwtAuthenticationFilter;
+import org.cms.carrental.security.RateLimitFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -30,27 +28,14 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
-    @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
-        return authProvider;
-    }
-
-    @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
-        return config.getAuthenticationManager();
-    }
-
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -77,12 +62,19 @@ public class SecurityConfig {
                         })
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Stream edilen cevapların (export) async dispatch'i - asıl istek zaten yetkilendirildi
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Thymeleaf sayfaları - Server-side rendered pages (herkese açık)
                         .requestMatchers("/", "/cars-page", "/cars-page/**", "/error").permitAll()
 
                         // Statik kaynaklar (CSS, JS, images)
                         .requestMatchers("/static/**", "/css/**", "/js/**", "/images/**", "/webjars/**").permitAll()
 
+                        // Actuator - health herkese açık, metrikler sadece ADMIN
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // Public endpoints - Register ve Login herkese açık
                         .requestMatchers("/auth/register", "/auth/login").permitAll()
                         // Auth check endpoints - authenticated users
@@ -93,7 +85,7 @@ public class SecurityConfig {
                         // Cars - GET herkese açık (herkes arabaları görebilir)
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/cars", "/cars/**").permitAll()
                         // Cars - POST/PUT/DELETE sadece ADMIN
-                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/cars").hasRole("ADMIN")
+                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/cars", "/cars/**").hasRole("ADMIN")
                         .requestMatchers(org.springframework.http.HttpMethod.PUT, "/cars/**").hasRole("ADMIN")
                         .requestMatchers(org.springframework.http.HttpMethod.DELETE, "/cars/**").hasRole("ADMIN")
 
@@ -123,8 +115,9 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
-                .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // İstek limiti - token doğrulamasından ve yetkilendirmeden önce
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -3,10 +3,17 @@ package org.cms.carrental.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.cms.carrental.dto.ApiResponse;
+import org.cms.carrental.dto.BulkImportResultDto;
 import org.cms.carrental.dto.CarDto;
+import org.cms.carrental.dto.CarSearchResultDto;
+import org.cms.carrental.dto.FleetCalendarDto;
+import org.cms.carrental.dto.PriceQuoteDto;
+import org.cms.carrental.service.CarImportService;
 import org.cms.carrental.service.CarService;
+import org.cms.carrental.service.PriceQuoteService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +28,8 @@ import java.util.List;
 public class CarController {
 
     private final CarService carService;
+    private final CarImportService carImportService;
+    private final PriceQuoteService priceQuoteService;
 
     /**
      * Yeni araç oluştur - Sadece ADMIN
@@ -34,6 +43,27 @@ public class CarController {
                 .body(ApiResponse.success("Car created successfully", created));
     }
 
+    /**
+     * Toplu araç ekle (JSON dizisi) - Sadece ADMIN
+     * Hatalı satırlar içe aktarmayı durdurmaz, sonuçta satır numarasıyla raporlanır
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<BulkImportResultDto>> importCars(@RequestBody List<CarDto> cars) {
+        BulkImportResultDto result = carImportService.importCars(cars);
+        return ResponseEntity.ok(ApiResponse.success("Bulk import finished", result));
+    }
+
+    /**
+     * Toplu araç ekle (CSV, ilk satır başlık) - Sadece ADMIN
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<BulkImportResultDto>> importCarsCsv(@RequestBody String csv) {
+        BulkImportResultDto result = carImportService.importCsv(csv);
+        return ResponseEntity.ok(ApiResponse.success("Bulk import finished", result));
+    }
+
     /**
      * Araç detayı getir - Herkes erişebilir
      */
@@ -54,9 +84,15 @@ public class CarController {
 
     /**
      * Tüm araçları listele - Herkes erişebilir
+     * after/limit verilirse cursor ile sayfalı döner: GET /api/cars?after=120&limit=50
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CarDto>>> getAllCars() {
+    public ResponseEntity<ApiResponse<List<CarDto>>> getAllCars(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(ApiResponse.page(carService.getCarsPage(after, limit)));
+        }
         List<CarDto> cars = carService.getAllCars();
         return ResponseEntity.ok(ApiResponse.success(cars));
     }
@@ -90,6 +126,52 @@ public class CarController {
         return ResponseEntity.ok(ApiResponse.success(cars));
     }
 
+    /**
+     * Çoklu filtre ile araç arama ve facet sayıları - Herkes erişebilir
+     * Aynı parametrede virgülle ayrılmış değerler OR, farklı parametreler AND ile birleşir.
+     * Örnek: GET /api/cars/search?brand=BMW,Audi&transmissionType=Automatic&minPrice=500&maxPrice=1500
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<CarSearchResultDto>> searchCars(
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> fuelType,
+            @RequestParam(required = false) List<String> transmissionType,
+            @RequestParam(required = false) List<String> seatCount,
+            @RequestParam(required = false) List<String> categoryId,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice) {
+        CarSearchResultDto result = carService.searchCars(
+                brand, fuelType, transmissionType, seatCount, categoryId, status, minPrice, maxPrice);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
+    /**
+     * Filo doluluk takvimi - Herkes erişebilir
+     * Örnek: GET /api/cars/calendar?from=2025-06-01&to=2025-08-29&categoryId=1
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<ApiResponse<FleetCalendarDto>> getFleetCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long categoryId) {
+        FleetCalendarDto calendar = carService.getFleetCalendar(from, to, categoryId);
+        return ResponseEntity.ok(ApiResponse.success(calendar));
+    }
+
+    /**
+     * Müsait araçların çoklu para birimi fiyat tablosu - Herkes erişebilir
+     * Örnek: GET /api/cars/quotes?startDate=2025-06-01&endDate=2025-06-05&currencies=USD,EUR,TRY
+     */
+    @GetMapping("/quotes")
+    public ResponseEntity<ApiResponse<PriceQuoteDto>> getPriceQuotes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "USD,EUR,TRY") List<String> currencies) {
+        PriceQuoteDto quotes = priceQuoteService.quote(startDate, endDate, currencies);
+        return ResponseEntity.ok(ApiResponse.success(quotes));
+    }
+
     /**
      * Araç güncelle - Sadece ADMIN
      */
@@ -3,6 +3,7 @@ package org.cms.carrental.controller;
 import lombok.RequiredArgsConstructor;
 import org.cms.carrental.dto.ApiResponse;
 import org.cms.carrental.service.CurrencyService;
+import org.cms.carrental.service.ExchangeRate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -30,15 +31,17 @@ public class CurrencyController {
             @RequestParam(defaultValue = "USD") String from,
             @RequestParam(defaultValue = "TRY") String to) {
 
-        Double convertedAmount = currencyService.convertCurrency(amount, from, to);
-        Double rate = currencyService.getExchangeRate(from, to);
+        // Tek kur okuması: tutar aynı kurla hesaplanır, asOf kurun hangi tablodan geldiğini gösterir
+        ExchangeRate rate = currencyService.getRate(from, to);
+        Double convertedAmount = amount * rate.rate();
 
         Map<String, Object> result = Map.of(
             "originalAmount", amount,
-            "originalCurrency", from,
+            "originalCurrency", rate.from(),
             "convertedAmount", convertedAmount,
-            "targetCurrency", to,
-            "exchangeRate", rate
+            "targetCurrency", rate.to(),
+            "exchangeRate", rate.rate(),
+            "asOf", rate.asOf()
         );
 
         return ResponseEntity.ok(ApiResponse.success("Price converted successfully", result));
@@ -65,12 +68,13 @@ public class CurrencyController {
             @RequestParam(defaultValue = "USD") String from,
             @RequestParam(defaultValue = "TRY") String to) {
 
-        Double rate = currencyService.getExchangeRate(from, to);
+        ExchangeRate rate = currencyService.getRate(from, to);
 
         Map<String, Object> result = Map.of(
-            "from", from,
-            "to", to,
-            "rate", rate
+            "from", rate.from(),
+            "to", rate.to(),
+            "rate", rate.rate(),
+            "asOf", rate.asOf()
         );
 
         return ResponseEntity.ok(ApiResponse.success("Exchange rate retrieved", result));
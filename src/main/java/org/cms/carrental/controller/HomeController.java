@@ -6,13 +6,19 @@ import org.cms.carrental.entity.Category;
 import org.cms.carrental.repository.CarRepository;
 import org.cms.carrental.repository.CategoryRepository;
 import org.cms.carrental.service.CurrencyService;
+import org.cms.carrental.service.ExchangeRate;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Thymeleaf Controller - Server-Side Rendered Pages
@@ -35,16 +41,17 @@ public class HomeController {
         List<Car> cars = carRepository.findAllWithCategory();
         List<Category> categories = categoryRepository.findAll();
 
-        // Döviz kuru bilgisi (External API)
-        Double usdToTry = currencyService.getExchangeRate("USD", "TRY");
-        Double eurToTry = currencyService.getExchangeRate("EUR", "TRY");
+        // Döviz kuru bilgisi (External API) - beklemeden, önbellekteki/kayıtlı kurdan; yoksa gösterilmez
+        Optional<ExchangeRate> usdToTry = currencyService.findRate("USD", "TRY");
+        Optional<ExchangeRate> eurToTry = currencyService.findRate("EUR", "TRY");
 
         model.addAttribute("cars", cars);
         model.addAttribute("categories", categories);
         model.addAttribute("totalCars", cars.size());
         model.addAttribute("totalCategories", categories.size());
-        model.addAttribute("usdToTry", usdToTry);
-        model.addAttribute("eurToTry", eurToTry);
+        model.addAttribute("usdToTry", usdToTry.map(ExchangeRate::rate).orElse(null));
+        model.addAttribute("eurToTry", eurToTry.map(ExchangeRate::rate).orElse(null));
+        model.addAttribute("ratesAsOf", asOf(usdToTry, eurToTry));
         model.addAttribute("appName", "Car Rental System");
         model.addAttribute("appVersion", "1.0.0");
 
@@ -74,15 +81,29 @@ public class HomeController {
         List<Category> categories = categoryRepository.findAll();
 
         // Döviz kuru
-        Double usdToTry = currencyService.getExchangeRate("USD", "TRY");
+        Optional<ExchangeRate> usdToTry = currencyService.findRate("USD", "TRY");
 
         model.addAttribute("cars", cars);
         model.addAttribute("categories", categories);
         model.addAttribute("selectedCategoryId", categoryId);
         model.addAttribute("selectedStatus", status);
-        model.addAttribute("usdToTry", usdToTry);
+        model.addAttribute("usdToTry", usdToTry.map(ExchangeRate::rate).orElse(null));
+        model.addAttribute("ratesAsOf", asOf(usdToTry));
 
         return "cars";
     }
+
+    /**
+     * Gösterilen kurların en eskisinin tarihi (yerel saat)
+     */
+    @SafeVarargs
+    private static LocalDateTime asOf(Optional<ExchangeRate>... rates) {
+        return Arrays.stream(rates)
+                .flatMap(Optional::stream)
+                .map(ExchangeRate::asOf)
+                .min(Comparator.naturalOrder())
+                .map(instant -> LocalDateTime.ofInstant(instant, ZoneId.systemDefault()))
+                .orElse(null);
+    }
 }
 
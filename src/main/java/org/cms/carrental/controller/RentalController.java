@@ -4,10 +4,13 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.cms.carrental.dto.ApiResponse;
 import org.cms.carrental.dto.RentalDto;
+import org.cms.carrental.service.ExportService;
 import org.cms.carrental.service.RentalService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,6 +21,7 @@ import java.util.List;
 public class RentalController {
 
     private final RentalService rentalService;
+    private final ExportService exportService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<RentalDto>> createRental(@Valid @RequestBody RentalDto rentalDto) {
@@ -40,20 +44,44 @@ public class RentalController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<RentalDto>>> getAllRentals() {
+    public ResponseEntity<ApiResponse<List<RentalDto>>> getAllRentals(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(ApiResponse.page(rentalService.getRentalsPage(after, limit)));
+        }
         List<RentalDto> rentals = rentalService.getAllRentals();
         return ResponseEntity.ok(ApiResponse.success(rentals));
     }
 
+    /**
+     * Tüm kiralamaları dışa aktar (stream) - ?format=ndjson|csv
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRentals(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format exportFormat = ExportService.Format.from(format);
+        StreamingResponseBody body = out -> exportService.exportRentals(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"rentals." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<List<RentalDto>>> getRentalsByUserId(@PathVariable Long userId) {
-        List<RentalDto> rentals = rentalService.getRentalsByUserId(userId);
+    public ResponseEntity<ApiResponse<List<RentalDto>>> getRentalsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<RentalDto> rentals = rentalService.getRentalsByUserId(userId, includeArchived);
         return ResponseEntity.ok(ApiResponse.success(rentals));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<ApiResponse<List<RentalDto>>> getRentalsByStatus(@PathVariable String status) {
-        List<RentalDto> rentals = rentalService.getRentalsByStatus(status);
+    public ResponseEntity<ApiResponse<List<RentalDto>>> getRentalsByStatus(
+            @PathVariable String status,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<RentalDto> rentals = rentalService.getRentalsByStatus(status, includeArchived);
         return ResponseEntity.ok(ApiResponse.success(rentals));
     }
 
@@ -4,11 +4,14 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.cms.carrental.dto.ApiResponse;
 import org.cms.carrental.dto.ReservationDto;
+import org.cms.carrental.service.ExportService;
 import org.cms.carrental.service.ReservationService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,6 +22,7 @@ import java.util.List;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ExportService exportService;
 
     /**
      * Yeni rezervasyon oluştur - Giriş yapmış tüm kullanıcılar
@@ -44,21 +48,46 @@ public class ReservationController {
 
     /**
      * Tüm rezervasyonları listele - Sadece ADMIN
+     * after/limit verilirse cursor ile sayfalı döner: GET /api/reservations?after=500&limit=100
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<ReservationDto>>> getAllReservations() {
+    public ResponseEntity<ApiResponse<List<ReservationDto>>> getAllReservations(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(ApiResponse.page(reservationService.getReservationsPage(after, limit)));
+        }
         List<ReservationDto> reservations = reservationService.getAllReservations();
         return ResponseEntity.ok(ApiResponse.success(reservations));
     }
 
     /**
-     * Kullanıcıya göre rezervasyonları listele -
+     * Tüm rezervasyonları dışa aktar (stream) - Sadece ADMIN
+     * Örnek: GET /api/reservations/export?format=csv (varsayılan: ndjson)
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format exportFormat = ExportService.Format.from(format);
+        StreamingResponseBody body = out -> exportService.exportReservations(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reservations." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Kullanıcıya göre rezervasyonları listele - includeArchived=true ile arşivlenmiş eski kayıtlar da
      */
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<ReservationDto>>> getReservationsByUserId(@PathVariable Long userId) {
-        List<ReservationDto> reservations = reservationService.getReservationsByUserId(userId);
+    public ResponseEntity<ApiResponse<List<ReservationDto>>> getReservationsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<ReservationDto> reservations = reservationService.getReservationsByUserId(userId, includeArchived);
         return ResponseEntity.ok(ApiResponse.success(reservations));
     }
 
@@ -67,8 +96,9 @@ public class ReservationController {
      */
     @GetMapping("/my")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<List<ReservationDto>>> getMyReservations() {
-        List<ReservationDto> reservations = reservationService.getMyReservations();
+    public ResponseEntity<ApiResponse<List<ReservationDto>>> getMyReservations(
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<ReservationDto> reservations = reservationService.getMyReservations(includeArchived);
         return ResponseEntity.ok(ApiResponse.success(reservations));
     }
 
@@ -77,8 +107,10 @@ public class ReservationController {
      */
     @GetMapping("/car/{carId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<ReservationDto>>> getReservationsByCarId(@PathVariable Long carId) {
-        List<ReservationDto> reservations = reservationService.getReservationsByCarId(carId);
+    public ResponseEntity<ApiResponse<List<ReservationDto>>> getReservationsByCarId(
+            @PathVariable Long carId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<ReservationDto> reservations = reservationService.getReservationsByCarId(carId, includeArchived);
         return ResponseEntity.ok(ApiResponse.success(reservations));
     }
 
@@ -87,8 +119,10 @@ public class ReservationController {
      */
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<ReservationDto>>> getReservationsByStatus(@PathVariable String status) {
-        List<ReservationDto> reservations = reservationService.getReservationsByStatus(status);
+    public ResponseEntity<ApiResponse<List<ReservationDto>>> getReservationsByStatus(
+            @PathVariable String status,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<ReservationDto> reservations = reservationService.getReservationsByStatus(status, includeArchived);
         return ResponseEntity.ok(ApiResponse.success(reservations));
     }
 
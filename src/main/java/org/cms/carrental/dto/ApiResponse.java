@@ -1,9 +1,12 @@
 package org.cms.carrental.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,16 +15,23 @@ public class ApiResponse<T> {
     private String message;
     private T data;
 
+    // Cursor (keyset) sayfalamada sonraki sayfanın "after" değeri; son sayfada null
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long nextCursor;
+
     public static <T> ApiResponse<T> success(T data) {
-        return new ApiResponse<>(true, "Success", data);
+        return new ApiResponse<>(true, "Success", data, null);
     }
 
     public static <T> ApiResponse<T> success(String message, T data) {
-        return new ApiResponse<>(true, message, data);
+        return new ApiResponse<>(true, message, data, null);
+    }
+
+    public static <T> ApiResponse<List<T>> page(CursorPage<T> page) {
+        return new ApiResponse<>(true, "Success", page.getItems(), page.getNextCursor());
     }
 
     public static <T> ApiResponse<T> error(String message) {
-        return new ApiResponse<>(false, message, null);
+        return new ApiResponse<>(false, message, null, null);
     }
 }
-
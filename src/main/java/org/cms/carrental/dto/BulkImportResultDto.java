@@ -0,0 +1,32 @@
+package org.cms.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Toplu araç içe aktarma sonucu - başarısız satırlar içe aktarmayı durdurmaz, burada raporlanır
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResultDto {
+    private int total;
+    private int imported;
+    private int failed;
+    private List<Long> createdIds = new ArrayList<>();
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        // 1'den başlayan veri satırı numarası (CSV'de başlık satırı sayılmaz)
+        private int row;
+        private String plate;
+        private String message;
+    }
+}
@@ -0,0 +1,25 @@
+package org.cms.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bir aracın takvim penceresindeki doluluk bilgisi
+ *
+ * occupancy: Base64 kodlu bitmap. i. gün (from + i) -> (i / 8). byte'ın (i % 8). biti (LSB önce).
+ * Bit 1 ise o gün PENDING veya CONFIRMED bir rezervasyon var.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarCalendarDto {
+    private Long carId;
+    private String brand;
+    private String model;
+    private String plate;
+    private String status;
+    private Long categoryId;
+    private String occupancy;
+    private int occupiedDays;
+}
@@ -0,0 +1,19 @@
+package org.cms.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarQuoteDto {
+    private Long carId;
+    private String brand;
+    private String model;
+    private String plate;
+    private String categoryName;
+    private Double dailyPrice;
+    private double[] dailyPrices;
+    private double[] totals;
+}
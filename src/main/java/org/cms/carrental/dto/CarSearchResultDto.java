@@ -0,0 +1,20 @@
+package org.cms.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Faceted araç araması sonucu - eşleşen araçlar ve facet başına değer sayıları
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarSearchResultDto {
+    private int total;
+    private List<CarDto> cars;
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,45 @@
+package org.cms.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset (cursor) sayfalama sonucu - id'ye göre artan sırada bir sayfa ve sonraki cursor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private Long nextCursor;
+
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public static long normalizeAfter(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    /**
+     * rows limit + 1 satır olarak sorgulanmalı; fazladan satır varsa bir sonraki sayfa vardır
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasMore ? idOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+}
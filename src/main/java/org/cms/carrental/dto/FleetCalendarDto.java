@@ -0,0 +1,18 @@
+package org.cms.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetCalendarDto {
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+    private List<CarCalendarDto> cars;
+}
@@ -0,0 +1,29 @@
+package org.cms.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Müsait araçların tarih aralığı için çoklu para birimi fiyat tablosu
+ *
+ * rates[i] ve her aracın dailyPrices[i] / totals[i] değerleri currencies[i] birimindedir.
+ * Tüm tablo tek kur anlık görüntüsüyle (asOf) hesaplanır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long days;
+    private String baseCurrency;
+    private List<String> currencies;
+    private double[] rates;
+    private Instant asOf;
+    private List<CarQuoteDto> cars;
+}
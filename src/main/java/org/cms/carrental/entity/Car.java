@@ -7,20 +7,27 @@ import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "cars")
+@Table(name = "cars",
+        indexes = @Index(name = "idx_cars_status_category", columnList = "status, category_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cars")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Car {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "car_id")
+    @TableGenerator(name = "car_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "cars", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Brand is required")
@@ -0,0 +1,33 @@
+package org.cms.carrental.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Son başarılı döviz kuru tablosu - base birimi başına tek satır.
+ * Kodlar sıralı ve virgülle ayrılmış, kurlar aynı sırada 8 byte'lık double dizisi olarak saklanır.
+ */
+@Entity
+@Table(name = "exchange_rate_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExchangeRateSnapshot {
+
+    @Id
+    @Column(name = "base_currency", length = 3)
+    private String baseCurrency;
+
+    @Column(name = "as_of", nullable = false)
+    private Instant asOf;
+
+    @Column(nullable = false, length = 2048)
+    private String codes;
+
+    @Column(nullable = false, length = 4096)
+    private byte[] rates;
+}
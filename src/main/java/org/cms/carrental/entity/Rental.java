@@ -9,14 +9,17 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rentals")
+@Table(name = "rentals",
+        indexes = @Index(name = "idx_rentals_status_return", columnList = "status, return_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Rental {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "rental_id")
+    @TableGenerator(name = "rental_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "rentals", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Pickup date is required")
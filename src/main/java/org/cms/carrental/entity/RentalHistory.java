@@ -0,0 +1,67 @@
+package org.cms.carrental.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Arşivlenmiş kiralama - rezervasyonuyla birlikte aynı transaction'da rentals tablosundan taşınır.
+ * Rezervasyon ilişki değil, reservations_history'deki id'dir; archive_month rezervasyonunkiyle aynıdır.
+ */
+@Entity
+@Table(name = "rentals_history", indexes = {
+        // V7__history_tables.sql
+        @Index(name = "idx_rentals_history_reservation", columnList = "reservation_id"),
+        @Index(name = "idx_rentals_history_month", columnList = "archive_month")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentalHistory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "pickup_date", nullable = false)
+    private LocalDateTime pickupDate;
+
+    @Column(name = "return_date")
+    private LocalDateTime returnDate;
+
+    @Column(name = "actual_return_date")
+    private LocalDateTime actualReturnDate;
+
+    @Column(name = "initial_mileage")
+    private Integer initialMileage;
+
+    @Column(name = "final_mileage")
+    private Integer finalMileage;
+
+    @Column(name = "additional_charges")
+    private Double additionalCharges;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Rental.RentalStatus status;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "reservation_id", nullable = false)
+    private Long reservationId;
+
+    @Column(name = "archive_month", nullable = false)
+    private Integer archiveMonth;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
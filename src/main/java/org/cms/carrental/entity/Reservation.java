@@ -10,14 +10,21 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        // V6__query_indexes.sql
+        @Index(name = "idx_reservations_car_status_dates", columnList = "car_id, status, start_date, end_date"),
+        @Index(name = "idx_reservations_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_reservations_status_end", columnList = "status, end_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "reservation_id")
+    @TableGenerator(name = "reservation_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "reservations", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Start date is required")
@@ -0,0 +1,42 @@
+package org.cms.carrental.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Rezervasyon gün slotu - aktif bir rezervasyonun kapsadığı her gün için bir satır.
+ * (car_id, day) birincil anahtar olduğu için aynı araç aynı güne iki kez rezerve edilemez.
+ */
+@Entity
+@Table(name = "reservation_days",
+        indexes = @Index(name = "idx_reservation_days_reservation", columnList = "reservation_id"))
+@IdClass(ReservationDay.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDay {
+
+    @Id
+    @Column(name = "car_id")
+    private Long carId;
+
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "reservation_id", nullable = false)
+    private Long reservationId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long carId;
+        private LocalDate day;
+    }
+}
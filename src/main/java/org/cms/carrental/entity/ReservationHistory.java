@@ -0,0 +1,66 @@
+package org.cms.carrental.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Arşivlenmiş rezervasyon - horizon'dan eski COMPLETED/CANCELLED satırlar reservations tablosundan
+ * buraya taşınır (ReservationArchiver). id ve kolonlar sıcak tabloyla aynıdır.
+ *
+ * Kullanıcı ve araç ilişki değil, sadece id'dir (FK yok); kullanıcı veya araç silinince arşiv ayrıca temizlenir.
+ * archive_month (yyyyMM, bitiş tarihine göre) bir ayın arşivini tek aralık sorgusuyla dışa aktarmayı/silmeyi sağlar.
+ */
+@Entity
+@Table(name = "reservations_history", indexes = {
+        // V7__history_tables.sql
+        @Index(name = "idx_reservations_history_user", columnList = "user_id"),
+        @Index(name = "idx_reservations_history_car", columnList = "car_id"),
+        @Index(name = "idx_reservations_history_month", columnList = "archive_month")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationHistory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "total_price", nullable = false)
+    private Double totalPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Reservation.ReservationStatus status;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "car_id", nullable = false)
+    private Long carId;
+
+    @Column(name = "archive_month", nullable = false)
+    private Integer archiveMonth;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
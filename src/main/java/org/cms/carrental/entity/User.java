@@ -19,7 +19,9 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id")
+    @TableGenerator(name = "user_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is required")
@@ -48,6 +50,10 @@ public class User {
     @Column(nullable = false)
     private Role role = Role.USER;
 
+    // Şifre değişikliği veya silmede artırılır; eski epoch'lu JWT'ler geçersiz olur
+    @Column(name = "token_epoch", nullable = false)
+    private Integer tokenEpoch = 0;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,19 @@
+package org.cms.carrental.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Bağımlı servis geçici olarak kullanılamıyor veya kapasite dolu - 503 + Retry-After
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
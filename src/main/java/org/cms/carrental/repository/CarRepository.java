@@ -2,43 +2,120 @@ package org.cms.carrental.repository;
 
 import org.cms.carrental.entity.Car;
 import org.cms.carrental.entity.Category;
+import org.cms.carrental.repository.projection.CarRow;
+import org.cms.carrental.repository.projection.TableVersion;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
 
+    // Liste endpoint'leri için projeksiyon - entity ve persistence context'e girmeden CarDto kolonları
+    String CAR_ROW = "SELECT new org.cms.carrental.repository.projection.CarRow(" +
+            "c.id, c.brand, c.model, c.year, c.plate, c.description, c.dailyPrice, c.status, c.imageUrl, " +
+            "c.fuelType, c.transmissionType, c.seatCount, cat.id, cat.name) " +
+            "FROM Car c JOIN c.category cat ";
+
     Optional<Car> findByPlate(String plate);
 
+    // Liste sorguları kategoriyle birlikte tek sorguda gelir (CarDto kategori adını kullanır)
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Car> findAll();
+
+    @EntityGraph(attributePaths = "category")
     List<Car> findByCategory(Category category);
 
+    // Rezervasyon kabulünde araç satırını kilitler (SELECT ... FOR UPDATE) - instance'lar arası koruma
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Car c WHERE c.id = :id")
+    Optional<Car> findByIdForUpdate(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = "category")
     List<Car> findByStatus(Car.CarStatus status);
 
+    @EntityGraph(attributePaths = "category")
     List<Car> findByCategoryId(Long categoryId);
 
+    @Query("SELECT c.plate FROM Car c WHERE c.plate IN :plates")
+    List<String> findExistingPlates(@Param("plates") Collection<String> plates);
+
     // Category ile birlikte fetch et (Lazy loading sorunu için)
+    // Katalog sorguları sorgu önbelleğinde; cars/categories tablolarına yazılınca geçersiz olur
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
     @Query("SELECT c FROM Car c LEFT JOIN FETCH c.category")
     List<Car> findAllWithCategory();
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
     @Query("SELECT c FROM Car c LEFT JOIN FETCH c.category WHERE c.category.id = :categoryId")
     List<Car> findByCategoryIdWithCategory(@Param("categoryId") Long categoryId);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
     @Query("SELECT c FROM Car c LEFT JOIN FETCH c.category WHERE c.status = :status")
     List<Car> findByStatusWithCategory(@Param("status") Car.CarStatus status);
 
-    @Query("SELECT c FROM Car c WHERE c.status = 'AVAILABLE' " +
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
+    @Query(CAR_ROW)
+    List<CarRow> findAllRows();
+
+    // Katalog indeksinin yeniden kurulumu - sorgu önbelleğini atlar (başka instance'ın yazmaları görünsün)
+    @Query(CAR_ROW)
+    List<CarRow> findAllRowsUncached();
+
+    @Query("SELECT new org.cms.carrental.repository.projection.TableVersion(COUNT(c), MAX(c.updatedAt)) FROM Car c")
+    TableVersion findVersion();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
+    @Query(CAR_ROW + "WHERE cat.id = :categoryId")
+    List<CarRow> findRowsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
+    @Query(CAR_ROW + "WHERE c.status = :status")
+    List<CarRow> findRowsByStatus(@Param("status") Car.CarStatus status);
+
+    // Keyset sayfalama: id > after, id'ye göre sıralı (Pageable sadece limit için)
+    @Query(CAR_ROW + "WHERE c.id > :after ORDER BY c.id")
+    List<CarRow> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query(CAR_ROW + "WHERE c.status = 'AVAILABLE' " +
            "AND c.id NOT IN (" +
            "SELECT r.car.id FROM Reservation r " +
            "WHERE r.status IN ('PENDING', 'CONFIRMED') " +
            "AND r.startDate <= :endDate " +
            "AND r.endDate >= :startDate)")
-    List<Car> findAvailableCarsBetweenDates(
+    List<CarRow> findAvailableRowsBetweenDates(
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
@@ -1,14 +1,26 @@
 package org.cms.carrental.repository;
 
+import jakarta.persistence.QueryHint;
 import org.cms.carrental.entity.Category;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    // Kategori listesi sorgu önbelleğinden (categories tablosuna yazılınca geçersiz olur)
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
+    List<Category> findAll();
+
     Optional<Category> findByName(String name);
 
     boolean existsByName(String name);
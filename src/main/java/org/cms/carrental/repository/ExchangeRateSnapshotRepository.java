@@ -0,0 +1,9 @@
+package org.cms.carrental.repository;
+
+import org.cms.carrental.entity.ExchangeRateSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExchangeRateSnapshotRepository extends JpaRepository<ExchangeRateSnapshot, String> {
+}
@@ -0,0 +1,40 @@
+package org.cms.carrental.repository;
+
+import org.cms.carrental.entity.Rental;
+import org.cms.carrental.entity.RentalHistory;
+import org.cms.carrental.repository.projection.RentalRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RentalHistoryRepository extends JpaRepository<RentalHistory, Long> {
+
+    // Sıcak tablodaki RentalRow ile aynı satır
+    String HISTORY_ROW = "SELECT new org.cms.carrental.repository.projection.RentalRow(" +
+            "h.id, h.pickupDate, h.returnDate, h.actualReturnDate, h.initialMileage, h.finalMileage, " +
+            "h.additionalCharges, h.status, h.notes, h.reservationId) " +
+            "FROM RentalHistory h ";
+
+    @Query(HISTORY_ROW + "WHERE h.status = :status ORDER BY h.pickupDate DESC")
+    List<RentalRow> findRowsByStatus(@Param("status") Rental.RentalStatus status);
+
+    // Kiralama rezervasyonuyla birlikte arşivlenir - kullanıcı reservations_history'den
+    @Query(HISTORY_ROW + "JOIN ReservationHistory r ON r.id = h.reservationId " +
+           "WHERE r.userId = :userId ORDER BY h.createdAt DESC")
+    List<RentalRow> findRowsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RentalHistory h WHERE h.reservationId IN " +
+           "(SELECT r.id FROM ReservationHistory r WHERE r.userId = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RentalHistory h WHERE h.reservationId IN " +
+           "(SELECT r.id FROM ReservationHistory r WHERE r.carId = :carId)")
+    int deleteByCarId(@Param("carId") Long carId);
+}
@@ -2,16 +2,29 @@ package org.cms.carrental.repository;
 
 import org.cms.carrental.entity.Rental;
 import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.repository.projection.RentalRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Long> {
 
+    // Liste endpoint'leri için projeksiyon - reservation_id FK kolonundan okunur, join yok
+    String RENTAL_ROW = "SELECT new org.cms.carrental.repository.projection.RentalRow(" +
+            "r.id, r.pickupDate, r.returnDate, r.actualReturnDate, r.initialMileage, r.finalMileage, " +
+            "r.additionalCharges, r.status, r.notes, r.reservation.id) " +
+            "FROM Rental r ";
+
     Optional<Rental> findByReservation(Reservation reservation);
 
     Optional<Rental> findByReservationId(Long reservationId);
@@ -25,4 +38,28 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
     @Query("SELECT r FROM Rental r WHERE r.status = 'PICKED_UP' " +
            "AND r.returnDate < CURRENT_TIMESTAMP")
     List<Rental> findOverdueRentals();
+
+    // Dışa aktarım için ileri yönlü stream (MySQL'de URL'de useCursorFetch=true ile sunucu tarafı cursor)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Rental r JOIN FETCH r.reservation ORDER BY r.id")
+    Stream<Rental> streamAllForExport();
+
+    @Query(RENTAL_ROW)
+    List<RentalRow> findAllRows();
+
+    @Query(RENTAL_ROW + "WHERE r.status = :status")
+    List<RentalRow> findRowsByStatus(@Param("status") Rental.RentalStatus status);
+
+    @Query(RENTAL_ROW + "WHERE r.reservation.user.id = :userId ORDER BY r.createdAt DESC")
+    List<RentalRow> findRowsByUserId(@Param("userId") Long userId);
+
+    @Query(RENTAL_ROW + "WHERE r.status = 'PICKED_UP' AND r.returnDate < CURRENT_TIMESTAMP")
+    List<RentalRow> findOverdueRows();
+
+    // Keyset sayfalama: id > after, id'ye göre sıralı (Pageable sadece limit için)
+    @Query(RENTAL_ROW + "WHERE r.id > :after ORDER BY r.id")
+    List<RentalRow> findPageAfter(@Param("after") Long after, Pageable pageable);
 }
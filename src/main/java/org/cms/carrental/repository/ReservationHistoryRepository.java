@@ -0,0 +1,39 @@
+package org.cms.carrental.repository;
+
+import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.entity.ReservationHistory;
+import org.cms.carrental.repository.projection.ReservationRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReservationHistoryRepository extends JpaRepository<ReservationHistory, Long> {
+
+    // Sıcak tablodaki ReservationRow ile aynı satır - kullanıcı ve araç id üzerinden join
+    String HISTORY_ROW = "SELECT new org.cms.carrental.repository.projection.ReservationRow(" +
+            "h.id, h.startDate, h.endDate, h.totalPrice, h.status, h.notes, h.userId, h.carId, " +
+            "u.name, c.brand, c.model, c.plate) " +
+            "FROM ReservationHistory h JOIN User u ON u.id = h.userId JOIN Car c ON c.id = h.carId ";
+
+    @Query(HISTORY_ROW + "WHERE h.userId = :userId ORDER BY h.endDate DESC")
+    List<ReservationRow> findRowsByUserId(@Param("userId") Long userId);
+
+    @Query(HISTORY_ROW + "WHERE h.carId = :carId ORDER BY h.endDate DESC")
+    List<ReservationRow> findRowsByCarId(@Param("carId") Long carId);
+
+    @Query(HISTORY_ROW + "WHERE h.status = :status ORDER BY h.endDate DESC")
+    List<ReservationRow> findRowsByStatus(@Param("status") Reservation.ReservationStatus status);
+
+    @Modifying
+    @Query("DELETE FROM ReservationHistory h WHERE h.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ReservationHistory h WHERE h.carId = :carId")
+    int deleteByCarId(@Param("carId") Long carId);
+}
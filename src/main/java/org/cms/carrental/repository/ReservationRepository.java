@@ -3,27 +3,54 @@ package org.cms.carrental.repository;
 import org.cms.carrental.entity.Reservation;
 import org.cms.carrental.entity.User;
 import org.cms.carrental.entity.Car;
+import org.cms.carrental.repository.projection.ReservationRow;
+import org.cms.carrental.repository.projection.ReservationWindow;
+import org.cms.carrental.repository.projection.TableVersion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    // Liste endpoint'leri için projeksiyon - kullanıcı adı ve araç bilgileri join ile, entity yüklenmez
+    String RESERVATION_ROW = "SELECT new org.cms.carrental.repository.projection.ReservationRow(" +
+            "r.id, r.startDate, r.endDate, r.totalPrice, r.status, r.notes, u.id, c.id, " +
+            "u.name, c.brand, c.model, c.plate) " +
+            "FROM Reservation r JOIN r.user u JOIN r.car c ";
+
+    // Liste sorguları DTO'nun kullandığı user ve car ile, ayrıca rental ile (ters OneToOne lazy olamaz,
+    // join edilmezse her satır için ayrı sorgu atılır) tek sorguda gelir
+    @Override
+    @EntityGraph(attributePaths = {"user", "car", "rental"})
+    List<Reservation> findAll();
+
+    @EntityGraph(attributePaths = {"user", "car", "rental"})
     List<Reservation> findByUser(User user);
 
+    @EntityGraph(attributePaths = {"user", "car", "rental"})
     List<Reservation> findByUserId(Long userId);
 
+    @EntityGraph(attributePaths = {"user", "car", "rental"})
     List<Reservation> findByCar(Car car);
 
+    @EntityGraph(attributePaths = {"user", "car", "rental"})
     List<Reservation> findByCarId(Long carId);
 
+    @EntityGraph(attributePaths = {"user", "car", "rental"})
     List<Reservation> findByStatus(Reservation.ReservationStatus status);
 
+    @EntityGraph(attributePaths = {"user", "car", "rental"})
     List<Reservation> findByUserIdAndStatus(Long userId, Reservation.ReservationStatus status);
 
     @Query("SELECT r FROM Reservation r WHERE r.car.id = :carId " +
@@ -36,7 +63,50 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
         @Param("endDate") LocalDate endDate
     );
 
+    @EntityGraph(attributePaths = {"user", "car", "rental"})
     @Query("SELECT r FROM Reservation r WHERE r.user.id = :userId " +
            "ORDER BY r.createdAt DESC")
     List<Reservation> findRecentReservationsByUserId(@Param("userId") Long userId);
+
+    // Dışa aktarım için ileri yönlü stream (MySQL'de URL'de useCursorFetch=true ile sunucu tarafı cursor)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.user JOIN FETCH r.car LEFT JOIN FETCH r.rental ORDER BY r.id")
+    Stream<Reservation> streamAllForExport();
+
+    // Müsaitlik indeksi için sadece aktif rezervasyonların aralıkları (entity yüklenmez)
+    @Query("SELECT new org.cms.carrental.repository.projection.ReservationWindow(r.id, r.car.id, r.startDate, r.endDate) " +
+           "FROM Reservation r WHERE r.status IN ('PENDING', 'CONFIRMED')")
+    List<ReservationWindow> findActiveWindows();
+
+    @Query("SELECT new org.cms.carrental.repository.projection.ReservationWindow(r.id, r.car.id, r.startDate, r.endDate) " +
+           "FROM Reservation r WHERE r.car.id = :carId AND r.status IN ('PENDING', 'CONFIRMED')")
+    List<ReservationWindow> findActiveWindowsByCarId(@Param("carId") Long carId);
+
+    @Query("SELECT new org.cms.carrental.repository.projection.ReservationWindow(r.id, r.car.id, r.startDate, r.endDate) " +
+           "FROM Reservation r WHERE r.user.id = :userId AND r.status IN ('PENDING', 'CONFIRMED')")
+    List<ReservationWindow> findActiveWindowsByUserId(@Param("userId") Long userId);
+
+    // Aktif rezervasyonların değişiklik işareti: silme/iptal sayıyı düşürür, ekleme/güncelleme updated_at'i ilerletir
+    @Query("SELECT new org.cms.carrental.repository.projection.TableVersion(COUNT(r), MAX(r.updatedAt)) " +
+           "FROM Reservation r WHERE r.status IN ('PENDING', 'CONFIRMED')")
+    TableVersion findActiveVersion();
+
+    @Query(RESERVATION_ROW)
+    List<ReservationRow> findAllRows();
+
+    @Query(RESERVATION_ROW + "WHERE u.id = :userId")
+    List<ReservationRow> findRowsByUserId(@Param("userId") Long userId);
+
+    @Query(RESERVATION_ROW + "WHERE c.id = :carId")
+    List<ReservationRow> findRowsByCarId(@Param("carId") Long carId);
+
+    @Query(RESERVATION_ROW + "WHERE r.status = :status")
+    List<ReservationRow> findRowsByStatus(@Param("status") Reservation.ReservationStatus status);
+
+    // Keyset sayfalama: id > after, id'ye göre sıralı (Pageable sadece limit için)
+    @Query(RESERVATION_ROW + "WHERE r.id > :after ORDER BY r.id")
+    List<ReservationRow> findPageAfter(@Param("after") Long after, Pageable pageable);
 }
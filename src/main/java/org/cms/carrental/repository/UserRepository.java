@@ -1,9 +1,14 @@
 package org.cms.carrental.repository;
 
 import org.cms.carrental.entity.User;
+import org.cms.carrental.repository.projection.UserCredentials;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Kimlik doğrulama için hafif projeksiyon (entity hydrate edilmez)
+    @Query("SELECT new org.cms.carrental.repository.projection.UserCredentials(u.id, u.email, u.password, u.role, u.tokenEpoch, " +
+           "u.name, u.phone, u.address, u.driverLicense, u.createdAt) " +
+           "FROM User u WHERE u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenEpochById(@Param("id") Long id);
+
+    // Keyset sayfalama: id > after, id'ye göre sıralı (Pageable sadece limit için)
+    @Query("SELECT u FROM User u WHERE u.id > :after ORDER BY u.id")
+    List<User> findPageAfter(@Param("after") Long after, Pageable pageable);
 }
@@ -0,0 +1,31 @@
+package org.cms.carrental.repository.projection;
+
+import org.cms.carrental.dto.CarDto;
+import org.cms.carrental.entity.Car;
+
+/**
+ * Araç listeleri için salt okunur satır - CarDto alanları ve kategori adı tek join ile
+ */
+public record CarRow(Long id, String brand, String model, Integer year, String plate, String description,
+                     Double dailyPrice, Car.CarStatus status, String imageUrl, String fuelType,
+                     String transmissionType, Integer seatCount, Long categoryId, String categoryName) {
+
+    public CarDto toDto() {
+        CarDto dto = new CarDto();
+        dto.setId(id);
+        dto.setBrand(brand);
+        dto.setModel(model);
+        dto.setYear(year);
+        dto.setPlate(plate);
+        dto.setDescription(description);
+        dto.setDailyPrice(dailyPrice);
+        dto.setStatus(status.name());
+        dto.setImageUrl(imageUrl);
+        dto.setFuelType(fuelType);
+        dto.setTransmissionType(transmissionType);
+        dto.setSeatCount(seatCount);
+        dto.setCategoryId(categoryId);
+        dto.setCategoryName(categoryName);
+        return dto;
+    }
+}
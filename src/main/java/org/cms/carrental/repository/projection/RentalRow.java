@@ -0,0 +1,29 @@
+package org.cms.carrental.repository.projection;
+
+import org.cms.carrental.dto.RentalDto;
+import org.cms.carrental.entity.Rental;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kiralama listeleri için salt okunur satır - rezervasyon sadece id olarak (FK kolonu, join yok)
+ */
+public record RentalRow(Long id, LocalDateTime pickupDate, LocalDateTime returnDate, LocalDateTime actualReturnDate,
+                        Integer initialMileage, Integer finalMileage, Double additionalCharges,
+                        Rental.RentalStatus status, String notes, Long reservationId) {
+
+    public RentalDto toDto() {
+        RentalDto dto = new RentalDto();
+        dto.setId(id);
+        dto.setPickupDate(pickupDate);
+        dto.setReturnDate(returnDate);
+        dto.setActualReturnDate(actualReturnDate);
+        dto.setInitialMileage(initialMileage);
+        dto.setFinalMileage(finalMileage);
+        dto.setAdditionalCharges(additionalCharges);
+        dto.setStatus(status.name());
+        dto.setNotes(notes);
+        dto.setReservationId(reservationId);
+        return dto;
+    }
+}
@@ -0,0 +1,31 @@
+package org.cms.carrental.repository.projection;
+
+import org.cms.carrental.dto.ReservationDto;
+import org.cms.carrental.entity.Reservation;
+
+import java.time.LocalDate;
+
+/**
+ * Rezervasyon listeleri için salt okunur satır - kullanıcı adı ve araç bilgileri join ile
+ */
+public record ReservationRow(Long id, LocalDate startDate, LocalDate endDate, Double totalPrice,
+                             Reservation.ReservationStatus status, String notes, Long userId, Long carId,
+                             String userName, String carBrand, String carModel, String carPlate) {
+
+    public ReservationDto toDto() {
+        ReservationDto dto = new ReservationDto();
+        dto.setId(id);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setTotalPrice(totalPrice);
+        dto.setStatus(status.name());
+        dto.setNotes(notes);
+        dto.setUserId(userId);
+        dto.setCarId(carId);
+        dto.setUserName(userName);
+        dto.setCarBrand(carBrand);
+        dto.setCarModel(carModel);
+        dto.setCarPlate(carPlate);
+        return dto;
+    }
+}
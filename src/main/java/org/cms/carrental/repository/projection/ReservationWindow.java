@@ -0,0 +1,9 @@
+package org.cms.carrental.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Aktif bir rezervasyonun araç ve tarih aralığı - müsaitlik indeksi için hafif projeksiyon
+ */
+public record ReservationWindow(Long id, Long carId, LocalDate startDate, LocalDate endDate) {
+}
@@ -0,0 +1,10 @@
+package org.cms.carrental.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bir tablonun ucuz değişiklik işareti - satır sayısı ve en son updated_at.
+ * Bellek içi indeksler bu değer değişince veritabanından yeniden yüklenir (IndexSynchronizer).
+ */
+public record TableVersion(Long rows, LocalDateTime lastUpdated) {
+}
@@ -0,0 +1,14 @@
+package org.cms.carrental.repository.projection;
+
+import org.cms.carrental.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kimlik doğrulama (ve login cevabı) için gereken kullanıcı alanları - entity (ve reservations koleksiyonu) yüklenmeden.
+ * tokenEpoch sürüm olarak da kullanılır.
+ */
+public record UserCredentials(Long id, String email, String password, User.Role role, Integer tokenEpoch,
+                              String name, String phone, String address, String driverLicense,
+                              LocalDateTime createdAt) {
+}
@@ -0,0 +1,17 @@
+package org.cms.carrental.security;
+
+import org.cms.carrental.entity.User;
+
+import java.security.Principal;
+
+/**
+ * JWT claim'lerinden kurulan oturum sahibi - veritabanına gitmeden id ve rol bilgisi.
+ * getName() email döndürür, Authentication.getName() kullanan kod değişmeden çalışır.
+ */
+public record AuthenticatedUser(Long id, String email, User.Role role) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,91 @@
+package org.cms.carrental.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Boyutu sınırlı, girdi başına son kullanma zamanı olan eşzamanlı önbellek.
+ *
+ * Süresi dolan girdiler okunurken düşer. Önbellek dolduğunda önce süresi dolanlar,
+ * yetmezse rastgele girdiler (kapasitenin %10'u) atılır - LRU takibi yok, okuma yolu kilitsiz.
+ */
+public final class ExpiringCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    public ExpiringCache(int maxSize) {
+        this(maxSize, System::currentTimeMillis);
+    }
+
+    public ExpiringCache(int maxSize, LongSupplier clock) {
+        this.maxSize = Math.max(1, maxSize);
+        this.clock = clock;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.getAsLong()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * expiresAt: epoch milisaniye (clock ile aynı zaman tabanı)
+     */
+    public void put(K key, V value, long expiresAt) {
+        long now = clock.getAsLong();
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * Geçerli bir girdi varsa onu, yoksa yeni değeri yazıp onu döndürür
+     */
+    public V putIfAbsent(K key, V value, long expiresAt) {
+        long now = clock.getAsLong();
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        return entries.compute(key, (k, current) ->
+                current != null && current.expiresAt() > now ? current : new Entry<>(value, expiresAt)).value();
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        int excess = entries.size() - (maxSize - Math.max(1, maxSize / 10));
+        Iterator<K> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -1,12 +1,11 @@
 package org.cms.carrental.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.cms.carrental.entity.User;
-import org.cms.carrental.repository.UserRepository;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,7 +21,7 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final TokenEpochRegistry tokenEpochRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -31,53 +30,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
-        // Authorization header'dan JWT token'ı çıkar
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("JWT Token extraction error: " + e.getMessage());
-            }
-        }
-
-        // Token geçerliyse ve henüz authentication yapılmamışsa
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            // Token'ı doğrula
-            if (jwtUtil.validateToken(jwt, username)) {
-
-                // Kullanıcıyı veritabanından al ve gerçek rolünü kullan
-                User user = userRepository.findByEmail(username).orElse(null);
-
-                if (user != null) {
-                    // Kullanıcının gerçek rolünü al (ROLE_USER veya ROLE_ADMIN)
-                    String role = "ROLE_" + user.getRole().name();
-
-                    // Authentication token oluştur
-                    UsernamePasswordAuthenticationToken authenticationToken =
-                        new UsernamePasswordAuthenticationToken(
-                            username,
-                            null,
-                            Collections.singletonList(new SimpleGrantedAuthority(role))
-                        );
-
-                    authenticationToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
+        // Authorization header'dan JWT token'ı çıkar ve tek seferde doğrula
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Claims claims = jwtUtil.verify(authorizationHeader.substring(7));
+            AuthenticatedUser principal = claims != null ? jwtUtil.toPrincipal(claims) : null;
+
+            if (principal == null) {
+                logger.debug("Invalid, expired or outdated JWT token");
+            } else if (!tokenEpochRegistry.isCurrent(principal.id(), jwtUtil.epochOf(claims))) {
+                // Şifre değişti veya kullanıcı silindi - token iptal edilmiş
+                logger.debug("Revoked JWT token for user: " + principal.email());
+            } else {
+                // Rol token'dan gelir (ROLE_USER veya ROLE_ADMIN) - veritabanı sorgusu yok
+                String role = "ROLE_" + principal.role().name();
+
+                // Authentication token oluştur
+                UsernamePasswordAuthenticationToken authenticationToken =
+                    new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority(role))
                     );
 
-                    // SecurityContext'e authentication'ı set et
-                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                authenticationToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+                );
 
-                    logger.debug("User authenticated: " + username + " with role: " + role);
-                }
+                // SecurityContext'e authentication'ı set et
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+
+                logger.debug("User authenticated: " + principal.email() + " with role: " + role);
             }
         }
 
         filterChain.doFilter(request, response);
     }
 }
-
@@ -1,31 +1,97 @@
 package org.cms.carrental.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.cms.carrental.entity.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 @Component
 public class JwtUtil {
 
+    // Token claim'leri - filtre kullanıcıyı veritabanına gitmeden bunlardan kurar
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_EPOCH = "epoch";
+
     @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationMustBeLongEnoughForHS256Algorithm}")
     private String secret;
 
     @Value("${jwt.expiration:86400000}") // 24 saat (milisaniye)
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    // Anahtar ve parser bir kez oluşturulur (ikisi de thread-safe)
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Doğrulanmış token'lar: SHA-256(token) -> claims, token'ın süresi dolunca düşer
+    private ExpiringCache<ByteBuffer, Claims> verifiedTokens;
+
+    // Token tarihleri, parser'ın süre kontrolü ve önbellek aynı saati kullanır
+    private final LongSupplier clock;
+
+    public JwtUtil() {
+        this(System::currentTimeMillis);
+    }
+
+    JwtUtil(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .clock(() -> new Date(clock.getAsLong()))
+                .build();
+        verifiedTokens = new ExpiringCache<>(verifiedCacheSize, clock);
+    }
+
+    /**
+     * Token'ı doğrula ve claim'leri döndür - istek başına tek parse.
+     * Daha önce doğrulanmış token'lar imza kontrolü yapılmadan önbellekten gelir.
+     * Geçersiz veya süresi dolmuş token için null.
+     */
+    public Claims verify(String token) {
+        ByteBuffer digest = digest(token);
+        Claims cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            // Süresi dolmuş token'ı parser reddeder (ExpiredJwtException)
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        Date expiresAt = claims.getExpiration();
+        if (expiresAt != null) {
+            verifiedTokens.put(digest, claims, expiresAt.getTime());
+        }
+        return claims;
     }
 
     // Token'dan kullanıcı adını (email) çıkar
@@ -46,51 +112,95 @@ public class JwtUtil {
 
     // Token'dan tüm claim'leri çıkar
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    // Token'ın süresi dolmuş mu?
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     // Kullanıcı için token oluştur
-    public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+    public String generateToken(User user) {
+        return generateToken(user.getId(), user.getEmail(), user.getRole(), user.getTokenEpoch());
     }
 
-    // Email için token oluştur
-    public String generateToken(String email) {
+    // id, rol ve token epoch'u claim olarak eklenir
+    public String generateToken(Long userId, String email, User.Role role, int tokenEpoch) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_ROLE, role.name());
+        claims.put(CLAIM_EPOCH, tokenEpoch);
         return createToken(claims, email);
     }
 
+    /**
+     * Claim'lerden oturum sahibi; id/rol/epoch claim'i olmayan (eski formattaki) token için null.
+     * Epoch'u eksik veya negatif token da reddedilir; silinmiş kullanıcının REVOKED (-1) epoch'uyla eşleşemez.
+     */
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        Object userId = claims.get(CLAIM_USER_ID);
+        Object role = claims.get(CLAIM_ROLE);
+        if (!(userId instanceof Number) || !(role instanceof String) || claims.getSubject() == null
+                || epochClaim(claims) == null) {
+            return null;
+        }
+        try {
+            return new AuthenticatedUser(((Number) userId).longValue(), claims.getSubject(), User.Role.valueOf((String) role));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Token epoch'u; sadece toPrincipal'ın kabul ettiği claim'ler için çağrılmalı
+     */
+    public int epochOf(Claims claims) {
+        Integer epoch = epochClaim(claims);
+        if (epoch == null) {
+            throw new IllegalArgumentException("Token has no valid epoch claim");
+        }
+        return epoch;
+    }
+
+    // 0..Integer.MAX_VALUE aralığında tam sayı epoch; eksik, metin veya kesirli değer için null
+    private static Integer epochClaim(Claims claims) {
+        Object epoch = claims.get(CLAIM_EPOCH);
+        if ((epoch instanceof Integer || epoch instanceof Long) && ((Number) epoch).longValue() >= 0
+                && ((Number) epoch).longValue() <= Integer.MAX_VALUE) {
+            return ((Number) epoch).intValue();
+        }
+        return null;
+    }
+
     // Token oluştur
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = clock.getAsLong();
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
     }
 
     // Token'ı doğrula
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(token, userDetails.getUsername());
     }
 
-    // Token'ı doğrula (email ile)
+    // Token'ı doğrula (email ile) - verify süresi dolmuş token'ı zaten reddeder
     public Boolean validateToken(String token, String email) {
-        final String username = extractUsername(token);
-        return (username.equals(email) && !isTokenExpired(token));
+        Claims claims = verify(token);
+        return claims != null && email.equals(claims.getSubject());
+    }
+
+    int cachedTokenCount() {
+        return verifiedTokens.size();
     }
-}
 
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
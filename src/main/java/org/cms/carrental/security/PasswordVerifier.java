@@ -0,0 +1,80 @@
+package org.cms.carrental.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login şifre doğrulaması - BCrypt, Tomcat worker'ları yerine çekirdek sayısı kadar
+ * thread'i olan ayrı bir havuzda çalışır.
+ *
+ * Kuyruk sınırlıdır; dolduğunda istek beklemeden 503 + Retry-After ile reddedilir.
+ * Kullanıcı bulunamasa da sahte bir hash ile BCrypt çalıştırılır (cevap süresinden email tahmin edilemesin).
+ */
+@Component
+@Slf4j
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final String dummyHash;
+    private final Counter rejected;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.security.login.threads:0}") int threads,
+                            @Value("${app.security.login.queue-capacity:64}") int queueCapacity,
+                            @Value("${app.security.login.retry-after:1s}") Duration retryAfter) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfter = retryAfter;
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("login-bcrypt-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+
+        this.rejected = Counter.builder("security.login.rejected").register(meterRegistry);
+        Gauge.builder("security.login.queue", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("security.login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        log.info("Login password verifier: {} threads, queue capacity {}", size, queueCapacity);
+    }
+
+    /**
+     * rawPassword, encodedPassword ile eşleşiyor mu? encodedPassword null ise (kullanıcı yok) sonuç false.
+     *
+     * @throws ServiceUnavailableException havuz ve kuyruk doluysa
+     */
+    public CompletableFuture<Boolean> verify(String rawPassword, String encodedPassword) {
+        String hash = encodedPassword != null ? encodedPassword : dummyHash;
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> passwordEncoder.matches(rawPassword, hash) && encodedPassword != null, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many login attempts in progress, please try again shortly", retryAfter);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
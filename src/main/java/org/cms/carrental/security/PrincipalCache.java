@@ -0,0 +1,79 @@
+package org.cms.carrental.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.cms.carrental.repository.UserRepository;
+import org.cms.carrental.repository.projection.UserCredentials;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * email -> kimlik bilgileri önbelleği (TTL + boyut sınırı)
+ *
+ * Kaçırmada entity yerine projeksiyon sorgusu çalışır. UserService kullanıcı değiştiğinde
+ * girdiyi commit sonrası siler; başka instance'lardaki değişiklikler en geç TTL sonunda görünür.
+ * Anahtar küçük harfe çevrilir (MySQL'de email karşılaştırması büyük/küçük harf duyarsız).
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final ExpiringCache<String, UserCredentials> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.principal-cache.ttl:5m}") Duration ttl,
+                          @Value("${app.security.principal-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new ExpiringCache<>(maxSize);
+
+        FunctionCounter.builder("security.principal.cache", hits, LongAdder::doubleValue)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("security.principal.cache", misses, LongAdder::doubleValue)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("security.principal.cache.hit.ratio", this, PrincipalCache::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("security.principal.cache.size", entries, ExpiringCache::size)
+                .register(meterRegistry);
+    }
+
+    public Optional<UserCredentials> find(String email) {
+        String key = key(email);
+        UserCredentials cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        Optional<UserCredentials> loaded = userRepository.findCredentialsByEmail(email);
+        loaded.ifPresent(credentials -> entries.put(key, credentials, System.currentTimeMillis() + ttlMillis));
+        return loaded;
+    }
+
+    public void invalidate(String email) {
+        entries.remove(key(email));
+    }
+
+    double hitRatio() {
+        double total = hits.sum() + misses.sum();
+        return total == 0 ? 0.0 : hits.sum() / total;
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
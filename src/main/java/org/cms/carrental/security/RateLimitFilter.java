@@ -0,0 +1,160 @@
+package org.cms.carrental.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pahalı endpoint'ler için istek limiti - JwtAuthenticationFilter'dan önce çalışır.
+ *
+ * Geçerli bir Bearer token varsa kova kullanıcıya (uid), yoksa istemci IP'sine aittir.
+ * Token doğrulaması JwtUtil önbelleğinden gelir. Limit aşılınca 429 + Retry-After döner;
+ * her cevapta X-RateLimit-Limit / X-RateLimit-Remaining başlıkları bulunur.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<Rule> rules = new ArrayList<>();
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           JwtUtil jwtUtil,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+
+        PathPatternParser parser = new PathPatternParser();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            RateLimiter limiter = new RateLimiter(route.getLimit(), route.getPeriod().toNanos(), route.getBurst());
+            Set<String> methods = route.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+            Counter rejected = Counter.builder("http.ratelimit.rejected")
+                    .tag("route", route.getName())
+                    .register(meterRegistry);
+            Gauge.builder("http.ratelimit.keys", limiter, RateLimiter::size)
+                    .tag("route", route.getName())
+                    .register(meterRegistry);
+            rules.add(new Rule(route.getName(), parser.parse(route.getPattern()), methods, limiter, rejected));
+            log.info("Rate limit '{}': {} {} per {} (burst {})", route.getName(), route.getPattern(),
+                    route.getLimit(), route.getPeriod(), limiter.burst());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || rules.isEmpty() || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        Rule rule = match(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long result = rule.limiter().tryAcquire(clientKey(request), System.nanoTime());
+        response.setHeader(LIMIT_HEADER, String.valueOf(rule.limiter().burst()));
+
+        if (result >= 0) {
+            response.setHeader(REMAINING_HEADER, String.valueOf(result));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rule.rejected().increment();
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(-result + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too many requests, please try again later",
+                request.getRequestURI()));
+    }
+
+    /**
+     * Dolmuş kovaları at - boştaki istemciler bellekte yer tutmaz
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval:PT1M}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (Rule rule : rules) {
+            int removed = rule.limiter().sweep(now);
+            if (removed > 0) {
+                log.debug("Rate limit '{}': evicted {} idle buckets", rule.name(), removed);
+            }
+        }
+    }
+
+    private Rule match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer container = null;
+        for (Rule rule : rules) {
+            if (!rule.methods().isEmpty() && !rule.methods().contains(request.getMethod())) {
+                continue;
+            }
+            if (container == null) {
+                container = PathContainer.parsePath(path);
+            }
+            if (rule.pattern().matches(container)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String authorizationHeader = request.getHeader("Authorization");
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            Claims claims = jwtUtil.verify(authorizationHeader.substring(7));
+            AuthenticatedUser principal = claims != null ? jwtUtil.toPrincipal(claims) : null;
+            if (principal != null) {
+                return "u:" + principal.id();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record Rule(String name, PathPattern pattern, Set<String> methods,
+                        RateLimiter limiter, Counter rejected) {
+    }
+}
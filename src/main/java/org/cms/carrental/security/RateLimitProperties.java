@@ -0,0 +1,46 @@
+package org.cms.carrental.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rota bazlı istek limitleri (app.rate-limit.*)
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Dolu (boşta) kovaların temizlenme aralığı
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        // Metrik etiketi ve log için kısa ad
+        private String name;
+
+        // Context path'siz yol kalıbı, ör. /currency/**
+        private String pattern;
+
+        // Boşsa tüm metodlar
+        private List<String> methods = new ArrayList<>();
+
+        // period başına izin verilen istek sayısı (kalıcı hız)
+        private int limit;
+
+        private Duration period = Duration.ofMinutes(1);
+
+        // Art arda yapılabilecek en fazla istek; 0 ise limit kadar
+        private int burst;
+    }
+}
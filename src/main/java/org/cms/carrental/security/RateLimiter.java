@@ -0,0 +1,70 @@
+package org.cms.carrental.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Anahtar (kullanıcı / IP) başına token bucket - GCRA olarak tutulur.
+ *
+ * Her anahtar için tek bir AtomicLong (teorik varış zamanı, nanosaniye) vardır; kontrol kilitsiz
+ * bir CAS döngüsüdür, izin verilen yolda nesne oluşturulmaz (ilk istek hariç).
+ * TAT geçmişte kalan kova tamamen dolmuştur, silinmesi ile aynı anlama gelir - sweep bunları atar.
+ */
+final class RateLimiter {
+
+    private final long emissionNanos;
+    private final long toleranceNanos;
+    private final int burst;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    RateLimiter(int limit, long periodNanos, int burst) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Rate limit must be positive");
+        }
+        this.burst = burst > 0 ? burst : limit;
+        this.emissionNanos = periodNanos / limit;
+        this.toleranceNanos = emissionNanos * (this.burst - 1);
+    }
+
+    int burst() {
+        return burst;
+    }
+
+    /**
+     * İzin verilirse kalan istek sayısı (>= 0); reddedilirse -(tekrar denemeden önce beklenecek nanosaniye).
+     */
+    long tryAcquire(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long stored = bucket.get();
+            long tat = Math.max(stored, now);
+            long ahead = tat - now;
+            if (ahead > toleranceNanos) {
+                return -Math.max(1L, ahead - toleranceNanos);
+            }
+            long newTat = tat + emissionNanos;
+            if (bucket.compareAndSet(stored, newTat)) {
+                return (toleranceNanos - ahead) / emissionNanos;
+            }
+        }
+    }
+
+    /**
+     * Dolmuş kovaları sil. Silinen kovaya aynı anda yazan istek en fazla bir isteklik fazladan hak kazanır.
+     */
+    int sweep(long now) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        return before - buckets.size();
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,64 @@
+package org.cms.carrental.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Kullanıcı başına geçerli token epoch'u - JWT'deki epoch bununla eşleşmiyorsa token iptal edilmiştir.
+ *
+ * Değerler bellekte tutulur; bilinmeyen kullanıcı için bir kez veritabanından okunur.
+ * Bu instance'taki değişiklikler commit sonrası hemen yazılır; diğer instance'lar
+ * en geç jwt.epoch-cache-ttl sonra veritabanından yeniden okur.
+ */
+@Component
+@Slf4j
+public class TokenEpochRegistry {
+
+    // Silinmiş / bulunamayan kullanıcı - hiçbir token epoch'u eşleşmez
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final ExpiringCache<Long, Integer> epochs;
+
+    public TokenEpochRegistry(UserRepository userRepository,
+                              @Value("${jwt.epoch-cache-ttl:60s}") Duration ttl,
+                              @Value("${jwt.epoch-cache-size:100000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttl.toMillis();
+        this.epochs = new ExpiringCache<>(maxSize);
+    }
+
+    public boolean isCurrent(Long userId, int tokenEpoch) {
+        Integer current = epochs.get(userId);
+        if (current == null) {
+            int loaded = userRepository.findTokenEpochById(userId).orElse(REVOKED);
+            // Okuma sırasında commit edilen bir değişikliğin üzerine yazma
+            current = epochs.putIfAbsent(userId, loaded, expiry());
+        }
+        return current == tokenEpoch;
+    }
+
+    /**
+     * Epoch değişti (şifre/rol değişikliği) - commit sonrası çağrılmalı
+     */
+    public void update(Long userId, int epoch) {
+        epochs.put(userId, epoch, expiry());
+        log.debug("Token epoch of user {} is now {}", userId, epoch);
+    }
+
+    /**
+     * Kullanıcı silindi - commit sonrası çağrılmalı
+     */
+    public void revoke(Long userId) {
+        epochs.put(userId, REVOKED, expiry());
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + ttlMillis;
+    }
+}
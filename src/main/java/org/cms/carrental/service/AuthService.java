@@ -6,32 +6,31 @@ import org.cms.carrental.dto.LoginRequest;
 import org.cms.carrental.dto.RegisterRequest;
 import org.cms.carrental.dto.UserDto;
 import org.cms.carrental.entity.User;
-import org.cms.carrental.repository.UserRepository;
+import org.cms.carrental.repository.projection.UserCredentials;
 import org.cms.carrental.security.JwtUtil;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.cms.carrental.security.PasswordVerifier;
+import org.cms.carrental.security.PrincipalCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordVerifier passwordVerifier;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
         UserDto userDto = userService.registerUser(request);
 
-        // JWT Token oluştur
-        String token = jwtUtil.generateToken(userDto.getEmail());
+        // JWT Token oluştur (yeni kullanıcının token epoch'u 0)
+        String token = jwtUtil.generateToken(userDto.getId(), userDto.getEmail(), User.Role.USER, 0);
 
         return new AuthResponse(token, userDto);
     }
@@ -43,36 +42,29 @@ public class AuthService {
     public AuthResponse registerAdmin(RegisterRequest request) {
         UserDto userDto = userService.registerAdmin(request);
 
-        // JWT Token oluştur
-        String token = jwtUtil.generateToken(userDto.getEmail());
+        // JWT Token oluştur (yeni kullanıcının token epoch'u 0)
+        String token = jwtUtil.generateToken(userDto.getId(), userDto.getEmail(), User.Role.ADMIN, 0);
 
         return new AuthResponse(token, userDto);
     }
 
-    public AuthResponse login(LoginRequest request) {
-        try {
-            // Spring Security ile authentication yap
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail(),
-                            request.getPassword()
-                    )
-            );
-
-            // Authentication başarılı, kullanıcıyı getir
-            User user = userRepository.findByEmail(request.getEmail())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            UserDto userDto = userService.getUserByEmail(request.getEmail());
-
-            // JWT Token oluştur
-            String token = jwtUtil.generateToken(user.getEmail());
-
-            return new AuthResponse(token, userDto);
-
-        } catch (AuthenticationException e) {
-            throw new RuntimeException("Invalid email or password");
-        }
+    /**
+     * Kullanıcı PrincipalCache'ten gelir (kaçırmada tek projeksiyon sorgusu); BCrypt kontrolü
+     * PasswordVerifier havuzunda çalışır, istek thread'i şifre doğrulamasını beklemez.
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        Optional<UserCredentials> user = principalCache.find(request.getEmail());
+
+        return passwordVerifier.verify(request.getPassword(), user.map(UserCredentials::password).orElse(null))
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new RuntimeException("Invalid email or password");
+                    }
+                    UserCredentials credentials = user.get();
+                    // JWT Token oluştur
+                    String token = jwtUtil.generateToken(credentials.id(), credentials.email(),
+                            credentials.role(), credentials.tokenEpoch());
+                    return new AuthResponse(token, userService.convertToDto(credentials));
+                });
     }
 }
-
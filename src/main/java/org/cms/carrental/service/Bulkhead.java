@@ -0,0 +1,46 @@
+package org.cms.carrental.service;
+
+import org.cms.carrental.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Eşzamanlı çağrı sınırı - kapasite doluysa en fazla maxWait beklenir, sonra reddedilir
+ */
+public final class Bulkhead {
+
+    private final String name;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait) {
+        this.name = name;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    public <T> T call(Supplier<T> action) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(name + " call interrupted", Duration.ofSeconds(1));
+        }
+        if (!acquired) {
+            throw new ServiceUnavailableException(name + " is at capacity", Duration.ofSeconds(1));
+        }
+        try {
+            return action.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,327 @@
+package org.cms.carrental.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.repository.ReservationRepository;
+import org.cms.carrental.repository.projection.ReservationWindow;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Araç müsaitlik indeksi - Aktif (PENDING/CONFIRMED) rezervasyon aralıklarını
+ * araç başına sıralı primitive dizilerde bellekte tutar.
+ *
+ * Sorgu maliyeti araç başına O(log n), veritabanına gidilmez.
+ * Takvim görünümü için her aracın dolu günleri ayrıca long[] bitset olarak tutulur.
+ * Bu instance'ın güncellemeleri transaction commit edildikten sonra uygulanır; diğer instance'ların
+ * yazmaları IndexSynchronizer'ın periyodik load() çağrısıyla (en geç app.index.sync-interval sonra) gelir.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CarAvailabilityIndex {
+
+    private final ReservationRepository reservationRepository;
+
+    private final Map<Long, CarIntervals> intervalsByCar = new ConcurrentHashMap<>();
+
+    // Yükleme sırasında değişen araçlar - yükleme bitince yeniden okunur
+    private final Set<Long> dirtyDuringLoad = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    /**
+     * Tüm aktif rezervasyonları tek sorguyla yükle - uygulama açılışında ve senkronizasyonda.
+     * Sonuçta olmayan araçlar indeksten çıkarılır; yükleme sırasında değişenler yeniden okunur.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        loading = true;
+        try {
+            List<ReservationWindow> windows = reservationRepository.findActiveWindows();
+
+            Map<Long, CarIntervals> loaded = new HashMap<>();
+            for (ReservationWindow window : windows) {
+                loaded.compute(window.carId(),
+                        (carId, current) -> (current != null ? current : CarIntervals.EMPTY).with(window));
+            }
+            intervalsByCar.putAll(loaded);
+            intervalsByCar.keySet().removeIf(carId -> !loaded.containsKey(carId));
+
+            // Yükleme sırasında işaretlenen araçlar; bayrak kapandıktan sonra son kez boşaltılır,
+            // böylece ilk boşaltma ile bayrağın kapanması arasında işaretlenen araç kaybolmaz
+            drainDirty();
+            loading = false;
+            drainDirty();
+
+            ready = true;
+            log.info("Availability index loaded: {} active reservations for {} cars", windows.size(), loaded.size());
+        } finally {
+            loading = false;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Araç verilen tarih aralığında (uçlar dahil) boş mu?
+     */
+    public boolean isFree(Long carId, LocalDate startDate, LocalDate endDate) {
+        CarIntervals intervals = intervalsByCar.get(carId);
+        return intervals == null
+                || !intervals.overlaps((int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+    }
+
+    /**
+     * Aracın from gününden başlayarak days gün boyunca doluluk bitmap'i.
+     * i. bit = from + i günü; bit 1 ise o gün aktif bir rezervasyon var.
+     */
+    public long[] occupancy(Long carId, LocalDate from, int days) {
+        CarIntervals intervals = intervalsByCar.get(carId);
+        if (intervals == null) {
+            return new long[(days + 63) >>> 6];
+        }
+        return intervals.occupancy((int) from.toEpochDay(), days);
+    }
+
+    /**
+     * Rezervasyonun durumuna göre indeksi güncelle (aktifse ekle, değilse çıkar)
+     */
+    public void onReservationChanged(Reservation reservation) {
+        Long id = reservation.getId();
+        Long carId = reservation.getCar().getId();
+        if (isActive(reservation.getStatus())) {
+            ReservationWindow window = new ReservationWindow(
+                    id, carId, reservation.getStartDate(), reservation.getEndDate());
+            AfterCommit.run(() -> update(carId, intervals -> intervals.with(window)));
+        } else {
+            AfterCommit.run(() -> update(carId, intervals -> intervals.without(id)));
+        }
+    }
+
+    public void onReservationDeleted(Reservation reservation) {
+        Long id = reservation.getId();
+        Long carId = reservation.getCar().getId();
+        AfterCommit.run(() -> update(carId, intervals -> intervals.without(id)));
+    }
+
+    public void onCarDeleted(Long carId) {
+        AfterCommit.run(() -> {
+            intervalsByCar.remove(carId);
+            markDirty(carId);
+        });
+    }
+
+    /**
+     * Kullanıcı silindiğinde cascade ile silinen aktif rezervasyonları indeksten çıkar
+     */
+    public void onUserDeleted(Long userId) {
+        List<ReservationWindow> windows = reservationRepository.findActiveWindowsByUserId(userId);
+        AfterCommit.run(() -> windows.forEach(window ->
+                update(window.carId(), intervals -> intervals.without(window.id()))));
+    }
+
+    private static boolean isActive(Reservation.ReservationStatus status) {
+        return status == Reservation.ReservationStatus.PENDING
+                || status == Reservation.ReservationStatus.CONFIRMED;
+    }
+
+    private void update(Long carId, UnaryOperator<CarIntervals> change) {
+        intervalsByCar.compute(carId, (id, current) -> {
+            CarIntervals updated = change.apply(current != null ? current : CarIntervals.EMPTY);
+            return updated.isEmpty() ? null : updated;
+        });
+        markDirty(carId);
+    }
+
+    private void markDirty(Long carId) {
+        if (loading) {
+            dirtyDuringLoad.add(carId);
+        }
+    }
+
+    private void drainDirty() {
+        while (!dirtyDuringLoad.isEmpty()) {
+            Iterator<Long> iterator = dirtyDuringLoad.iterator();
+            while (iterator.hasNext()) {
+                Long carId = iterator.next();
+                iterator.remove();
+                reloadCar(carId);
+            }
+        }
+    }
+
+    private void reloadCar(Long carId) {
+        CarIntervals intervals = CarIntervals.EMPTY;
+        for (ReservationWindow window : reservationRepository.findActiveWindowsByCarId(carId)) {
+            intervals = intervals.with(window);
+        }
+        if (intervals.isEmpty()) {
+            intervalsByCar.remove(carId);
+        } else {
+            intervalsByCar.put(carId, intervals);
+        }
+    }
+
+    /**
+     * Bir aracın aktif aralıkları - başlangıca göre sıralı, değiştirilemez (copy-on-write).
+     * maxEnds[i] = ends[0..i] içindeki en büyük bitiş; çakışma sorgusu tek binary search'tür.
+     * dayBits: baseDay'den itibaren dolu günlerin bitset'i (aralıklardan türetilir).
+     */
+    static final class CarIntervals {
+
+        static final CarIntervals EMPTY = new CarIntervals(new long[0], new int[0], new int[0]);
+
+        private final long[] ids;
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEnds;
+        private final int baseDay;
+        private final long[] dayBits;
+
+        private CarIntervals(long[] ids, int[] starts, int[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new int[ends.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+
+            this.baseDay = starts.length > 0 ? starts[0] : 0;
+            int span = starts.length > 0 ? max - baseDay + 1 : 0;
+            this.dayBits = new long[(Math.max(span, 0) + 63) >>> 6];
+            for (int i = 0; i < starts.length; i++) {
+                if (ends[i] >= starts[i]) {
+                    setRange(dayBits, starts[i] - baseDay, ends[i] - baseDay);
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return ids.length == 0;
+        }
+
+        boolean overlaps(int from, int to) {
+            // start <= to olan son aralık
+            int idx = upperBound(starts, to) - 1;
+            return idx >= 0 && maxEnds[idx] >= from;
+        }
+
+        CarIntervals with(ReservationWindow window) {
+            CarIntervals base = without(window.id());
+            int start = (int) window.startDate().toEpochDay();
+            int end = (int) window.endDate().toEpochDay();
+            int pos = upperBound(base.starts, start);
+            int n = base.ids.length;
+
+            long[] newIds = new long[n + 1];
+            int[] newStarts = new int[n + 1];
+            int[] newEnds = new int[n + 1];
+            System.arraycopy(base.ids, 0, newIds, 0, pos);
+            System.arraycopy(base.starts, 0, newStarts, 0, pos);
+            System.arraycopy(base.ends, 0, newEnds, 0, pos);
+            newIds[pos] = window.id();
+            newStarts[pos] = start;
+            newEnds[pos] = end;
+            System.arraycopy(base.ids, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(base.starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(base.ends, pos, newEnds, pos + 1, n - pos);
+            return new CarIntervals(newIds, newStarts, newEnds);
+        }
+
+        CarIntervals without(long id) {
+            int pos = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                return this;
+            }
+            int n = ids.length;
+            long[] newIds = new long[n - 1];
+            int[] newStarts = new int[n - 1];
+            int[] newEnds = new int[n - 1];
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            System.arraycopy(ids, pos + 1, newIds, pos, n - pos - 1);
+            System.arraycopy(starts, pos + 1, newStarts, pos, n - pos - 1);
+            System.arraycopy(ends, pos + 1, newEnds, pos, n - pos - 1);
+            return new CarIntervals(newIds, newStarts, newEnds);
+        }
+
+        long[] occupancy(int fromDay, int days) {
+            long[] result = new long[(days + 63) >>> 6];
+            int offset = fromDay - baseDay;
+            for (int i = 0; i < result.length; i++) {
+                result[i] = wordAt(dayBits, offset + (i << 6));
+            }
+            int tail = days & 63;
+            if (tail != 0 && result.length > 0) {
+                result[result.length - 1] &= (1L << tail) - 1;
+            }
+            return result;
+        }
+
+        // [from, to] bitlerini 1 yap
+        private static void setRange(long[] words, int from, int to) {
+            int i = from;
+            while (i <= to) {
+                int bit = i & 63;
+                int span = Math.min(64 - bit, to - i + 1);
+                long mask = span == 64 ? -1L : ((1L << span) - 1) << bit;
+                words[i >>> 6] |= mask;
+                i += span;
+            }
+        }
+
+        // bitIndex'ten başlayan 64 bit (dizi dışı bitler 0)
+        private static long wordAt(long[] words, int bitIndex) {
+            int word = Math.floorDiv(bitIndex, 64);
+            int shift = Math.floorMod(bitIndex, 64);
+            long low = wordOrZero(words, word) >>> shift;
+            long high = shift == 0 ? 0L : wordOrZero(words, word + 1) << (64 - shift);
+            return low | high;
+        }
+
+        private static long wordOrZero(long[] words, int index) {
+            return index >= 0 && index < words.length ? words[index] : 0L;
+        }
+
+        // key'den büyük ilk elemanın indeksi
+        private static int upperBound(int[] values, int key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+    }
+}
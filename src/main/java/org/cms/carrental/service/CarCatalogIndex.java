@@ -0,0 +1,447 @@
+package org.cms.carrental.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.dto.CarDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Araç kataloğu için bellek içi ters indeks (faceted search)
+ *
+ * Her araç bir slot numarası alır. Her facet değeri (marka, yakıt tipi, vites, koltuk sayısı,
+ * kategori, durum) için slot bitmap'i (long[]) tutulur; fiyat aralıkları için fiyata göre
+ * sıralı dizi kullanılır. İndeks CarService üzerinden artımlı olarak güncellenir; diğer instance'ların
+ * yazmaları için IndexSynchronizer cars tablosu değişince indeksi baştan kurar.
+ */
+@Component
+@Slf4j
+public class CarCatalogIndex {
+
+    public static final String BRAND = "brand";
+    public static final String FUEL_TYPE = "fuelType";
+    public static final String TRANSMISSION_TYPE = "transmissionType";
+    public static final String SEAT_COUNT = "seatCount";
+    public static final String CATEGORY = "categoryId";
+    public static final String STATUS = "status";
+
+    private static final Map<String, Function<CarDto, Object>> FACETS = new LinkedHashMap<>();
+
+    static {
+        FACETS.put(BRAND, CarDto::getBrand);
+        FACETS.put(FUEL_TYPE, CarDto::getFuelType);
+        FACETS.put(TRANSMISSION_TYPE, CarDto::getTransmissionType);
+        FACETS.put(SEAT_COUNT, CarDto::getSeatCount);
+        FACETS.put(CATEGORY, CarDto::getCategoryId);
+        FACETS.put(STATUS, CarDto::getStatus);
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private CarDto[] cars = new CarDto[64];
+    private long[] live = new long[1];
+    private final Map<Long, Integer> slotByCarId = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int nextSlot;
+
+    private final Map<String, Facet> facets = new LinkedHashMap<>();
+
+    // Fiyata göre sıralı slotlar
+    private double[] sortedPrices = new double[0];
+    private int[] sortedSlots = new int[0];
+
+    private volatile boolean ready;
+
+    public CarCatalogIndex() {
+        FACETS.keySet().forEach(name -> facets.put(name, new Facet()));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * İndeksi verilen araç listesiyle baştan kur
+     */
+    public void rebuild(List<CarDto> all) {
+        lock.writeLock().lock();
+        try {
+            cars = new CarDto[Math.max(64, Integer.highestOneBit(Math.max(all.size(), 1)) << 1)];
+            live = new long[words(cars.length)];
+            slotByCarId.clear();
+            freeSlots.clear();
+            nextSlot = 0;
+            facets.values().forEach(facet -> facet.bitmaps.clear());
+            facets.values().forEach(facet -> facet.labels.clear());
+            sortedPrices = new double[0];
+            sortedSlots = new int[0];
+
+            all.forEach(this::insert);
+            ready = true;
+            log.info("Car catalog index built with {} cars", all.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Eklenen veya güncellenen aracı commit sonrası indekse yansıt
+     */
+    public void onCarSaved(CarDto car) {
+        CarDto copy = copyOf(car);
+        AfterCommit.run(() -> upsert(copy));
+    }
+
+    public void onCarDeleted(Long carId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(carId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Kiralama/iade sırasında sadece araç durumu değiştiğinde
+     */
+    public void onCarStatusChanged(Long carId, String status) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slotByCarId.get(carId);
+                if (slot != null) {
+                    CarDto copy = copyOf(cars[slot]);
+                    copy.setStatus(status);
+                    remove(carId);
+                    insert(copy);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void onCategoryRenamed(Long categoryId, String name) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                for (CarDto car : cars) {
+                    if (car != null && categoryId.equals(car.getCategoryId())) {
+                        CarDto copy = copyOf(car);
+                        copy.setCategoryName(name);
+                        cars[slotByCarId.get(car.getId())] = copy;
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Facet filtreleriyle arama. Aynı facet içindeki değerler OR, farklı facet'ler AND ile birleşir.
+     * Facet sayıları, o facet'in kendi filtresi hariç diğer tüm filtreler uygulanarak hesaplanır.
+     * Dönen araçlar indeksteki kayıtların kopyalarıdır; çağıran taraf değiştirse de indeks etkilenmez.
+     */
+    public SearchResult search(Map<String, List<String>> filters, Double minPrice, Double maxPrice,
+                               boolean withFacetCounts) {
+        lock.readLock().lock();
+        try {
+            long[] base = live.clone();
+            if (minPrice != null || maxPrice != null) {
+                and(base, priceRange(minPrice, maxPrice));
+            }
+
+            Map<String, long[]> selections = new LinkedHashMap<>();
+            filters.forEach((name, values) -> {
+                Facet facet = facets.get(name);
+                if (facet != null && values != null && !values.isEmpty()) {
+                    selections.put(name, facet.union(values, live.length));
+                }
+            });
+
+            long[] matches = base.clone();
+            selections.values().forEach(selection -> and(matches, selection));
+
+            List<CarDto> result = new ArrayList<>(cardinality(matches));
+            forEachSetBit(matches, slot -> result.add(copyOf(cars[slot])));
+            result.sort(Comparator.comparing(CarDto::getId));
+
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            if (withFacetCounts) {
+                facets.forEach((name, facet) -> {
+                    long[] scope = base.clone();
+                    selections.forEach((other, selection) -> {
+                        if (!other.equals(name)) {
+                            and(scope, selection);
+                        }
+                    });
+                    counts.put(name, facet.counts(scope));
+                });
+            }
+
+            return new SearchResult(result, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record SearchResult(List<CarDto> cars, Map<String, Map<String, Integer>> facetCounts) {
+    }
+
+    private void upsert(CarDto car) {
+        lock.writeLock().lock();
+        try {
+            remove(car.getId());
+            insert(car);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(CarDto car) {
+        int slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+        ensureCapacity(slot);
+
+        cars[slot] = car;
+        slotByCarId.put(car.getId(), slot);
+        setBit(live, slot);
+        FACETS.forEach((name, accessor) -> facets.get(name).add(accessor.apply(car), slot, live.length));
+
+        if (car.getDailyPrice() != null) {
+            int pos = upperBound(sortedPrices, car.getDailyPrice());
+            sortedPrices = insertAt(sortedPrices, pos, car.getDailyPrice());
+            sortedSlots = insertAt(sortedSlots, pos, slot);
+        }
+    }
+
+    private void remove(Long carId) {
+        Integer slot = slotByCarId.remove(carId);
+        if (slot == null) {
+            return;
+        }
+        CarDto car = cars[slot];
+        FACETS.forEach((name, accessor) -> facets.get(name).remove(accessor.apply(car), slot));
+        clearBit(live, slot);
+        cars[slot] = null;
+        freeSlots.push(slot);
+
+        for (int i = 0; i < sortedSlots.length; i++) {
+            if (sortedSlots[i] == slot) {
+                sortedPrices = removeAt(sortedPrices, i);
+                sortedSlots = removeAt(sortedSlots, i);
+                break;
+            }
+        }
+    }
+
+    private long[] priceRange(Double minPrice, Double maxPrice) {
+        long[] bitmap = new long[live.length];
+        int from = minPrice != null ? lowerBound(sortedPrices, minPrice) : 0;
+        int to = maxPrice != null ? upperBound(sortedPrices, maxPrice) : sortedPrices.length;
+        for (int i = from; i < to; i++) {
+            setBit(bitmap, sortedSlots[i]);
+        }
+        return bitmap;
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < cars.length) {
+            return;
+        }
+        int capacity = cars.length << 1;
+        cars = Arrays.copyOf(cars, capacity);
+        live = Arrays.copyOf(live, words(capacity));
+        facets.values().forEach(facet -> facet.grow(words(capacity)));
+    }
+
+    private static CarDto copyOf(CarDto car) {
+        return new CarDto(car.getId(), car.getBrand(), car.getModel(), car.getYear(), car.getPlate(),
+                car.getDescription(), car.getDailyPrice(), car.getStatus(), car.getImageUrl(),
+                car.getFuelType(), car.getTransmissionType(), car.getSeatCount(),
+                car.getCategoryId(), car.getCategoryName());
+    }
+
+    /**
+     * Bir facet'in değer -> slot bitmap eşlemesi. Anahtarlar büyük/küçük harf duyarsız tutulur,
+     * sayımlarda ilk görülen yazım gösterilir.
+     */
+    private static final class Facet {
+
+        private final Map<String, long[]> bitmaps = new HashMap<>();
+        private final Map<String, String> labels = new HashMap<>();
+
+        void add(Object value, int slot, int words) {
+            if (value == null) {
+                return;
+            }
+            String label = value.toString();
+            String key = normalize(label);
+            labels.putIfAbsent(key, label);
+            setBit(bitmaps.computeIfAbsent(key, k -> new long[words]), slot);
+        }
+
+        void remove(Object value, int slot) {
+            if (value == null) {
+                return;
+            }
+            String key = normalize(value.toString());
+            long[] bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                clearBit(bitmap, slot);
+                if (cardinality(bitmap) == 0) {
+                    bitmaps.remove(key);
+                    labels.remove(key);
+                }
+            }
+        }
+
+        void grow(int words) {
+            bitmaps.replaceAll((key, bitmap) -> Arrays.copyOf(bitmap, words));
+        }
+
+        long[] union(List<String> values, int words) {
+            long[] result = new long[words];
+            for (String value : values) {
+                long[] bitmap = bitmaps.get(normalize(value));
+                if (bitmap != null) {
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] |= bitmap[i];
+                    }
+                }
+            }
+            return result;
+        }
+
+        Map<String, Integer> counts(long[] scope) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            bitmaps.forEach((key, bitmap) -> {
+                int count = 0;
+                for (int i = 0; i < scope.length; i++) {
+                    count += Long.bitCount(scope[i] & bitmap[i]);
+                }
+                if (count > 0) {
+                    counts.put(labels.get(key), count);
+                }
+            });
+            return counts;
+        }
+
+        private static String normalize(String value) {
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // --- bitmap yardımcıları ---
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static void setBit(long[] bitmap, int bit) {
+        bitmap[bit >>> 6] |= 1L << bit;
+    }
+
+    private static void clearBit(long[] bitmap, int bit) {
+        bitmap[bit >>> 6] &= ~(1L << bit);
+    }
+
+    private static void and(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= other[i];
+        }
+    }
+
+    private static int cardinality(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static void forEachSetBit(long[] bitmap, IntConsumer action) {
+        for (int i = 0; i < bitmap.length; i++) {
+            long word = bitmap[i];
+            while (word != 0) {
+                action.accept((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    // --- sıralı fiyat dizisi yardımcıları ---
+
+    private static int lowerBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static double[] insertAt(double[] values, int pos, double value) {
+        double[] result = new double[values.length + 1];
+        System.arraycopy(values, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(values, pos, result, pos + 1, values.length - pos);
+        return result;
+    }
+
+    private static int[] insertAt(int[] values, int pos, int value) {
+        int[] result = new int[values.length + 1];
+        System.arraycopy(values, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(values, pos, result, pos + 1, values.length - pos);
+        return result;
+    }
+
+    private static double[] removeAt(double[] values, int pos) {
+        double[] result = new double[values.length - 1];
+        System.arraycopy(values, 0, result, 0, pos);
+        System.arraycopy(values, pos + 1, result, pos, values.length - pos - 1);
+        return result;
+    }
+
+    private static int[] removeAt(int[] values, int pos) {
+        int[] result = new int[values.length - 1];
+        System.arraycopy(values, 0, result, 0, pos);
+        System.arraycopy(values, pos + 1, result, pos, values.length - pos - 1);
+        return result;
+    }
+}
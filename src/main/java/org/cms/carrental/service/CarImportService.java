@@ -0,0 +1,274 @@
+package org.cms.carrental.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.dto.BulkImportResultDto;
+import org.cms.carrental.dto.CarDto;
+import org.cms.carrental.entity.Car;
+import org.cms.carrental.entity.Category;
+import org.cms.carrental.repository.CarRepository;
+import org.cms.carrental.repository.CategoryRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Toplu araç içe aktarma (JSON dizisi veya CSV)
+ *
+ * Kategoriler ve mevcut plakalar tüm içe aktarma için bir kez sorgulanır; geçerli satırlar
+ * BATCH_SIZE'lık parçalar halinde, her parça kendi transaction'ında JDBC batch insert ile yazılır.
+ * Başarısız olan parçanın satırları tek tek (satır başına transaction) yeniden denenir; sadece
+ * yazılamayan satırlar kısa bir mesajla raporlanır, geri kalanı içe aktarılmaya devam eder.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CarImportService {
+
+    // hibernate.jdbc.batch_size ile aynı
+    private static final int BATCH_SIZE = 50;
+    private static final int IN_CLAUSE_SIZE = 1000;
+
+    private final CarRepository carRepository;
+    private final CategoryRepository categoryRepository;
+    private final CarService carService;
+    private final CarCatalogIndex catalogIndex;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public BulkImportResultDto importCars(List<CarDto> rows) {
+        List<Integer> rowNumbers = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            rowNumbers.add(i + 1);
+        }
+        BulkImportResultDto result = new BulkImportResultDto();
+        result.setTotal(rows.size());
+        return importRows(rows, rowNumbers, result);
+    }
+
+    /**
+     * CSV: ilk satır başlık (brand,model,year,plate,dailyPrice,categoryId,fuelType,transmissionType,
+     * seatCount,description,imageUrl - sıra serbest, büyük/küçük harf duyarsız)
+     */
+    public BulkImportResultDto importCsv(String csv) {
+        List<String> lines = csv.lines().collect(Collectors.toList());
+        if (lines.isEmpty() || lines.get(0).isBlank()) {
+            throw new RuntimeException("CSV is empty");
+        }
+
+        List<String> header = CsvFormat.parseLine(lines.get(0)).stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+        if (!header.contains("plate") || !header.contains("categoryid")) {
+            throw new RuntimeException("CSV header must contain at least: brand,model,year,plate,dailyPrice,categoryId");
+        }
+
+        BulkImportResultDto result = new BulkImportResultDto();
+        List<CarDto> rows = new ArrayList<>();
+        List<Integer> rowNumbers = new ArrayList<>();
+        int total = 0;
+        for (int i = 1; i < lines.size(); i++) {
+            if (lines.get(i).isBlank()) {
+                continue;
+            }
+            total++;
+            List<String> fields = CsvFormat.parseLine(lines.get(i));
+            Map<String, String> values = new HashMap<>();
+            for (int c = 0; c < header.size() && c < fields.size(); c++) {
+                String value = fields.get(c).trim();
+                values.put(header.get(c), value.isEmpty() ? null : value);
+            }
+            try {
+                rows.add(toCarDto(values));
+                rowNumbers.add(i);
+            } catch (NumberFormatException e) {
+                result.getErrors().add(new BulkImportResultDto.RowError(i, values.get("plate"),
+                        "Invalid number: " + e.getMessage()));
+            }
+        }
+
+        result.setTotal(total);
+        return importRows(rows, rowNumbers, result);
+    }
+
+    private BulkImportResultDto importRows(List<CarDto> rows, List<Integer> rowNumbers, BulkImportResultDto result) {
+        // 1) Bean validation
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            CarDto row = rows.get(i);
+            if (row == null) {
+                result.getErrors().add(new BulkImportResultDto.RowError(rowNumbers.get(i), null, "Row is empty"));
+                continue;
+            }
+            Set<ConstraintViolation<CarDto>> violations = validator.validate(row);
+            if (violations.isEmpty()) {
+                candidates.add(i);
+            } else {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                result.getErrors().add(new BulkImportResultDto.RowError(rowNumbers.get(i), row.getPlate(), message));
+            }
+        }
+
+        // 2) Kategoriler ve mevcut plakalar - tüm içe aktarma için tek seferde
+        Set<Long> categoryIds = candidates.stream()
+                .map(i -> rows.get(i).getCategoryId())
+                .collect(Collectors.toSet());
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        Set<String> takenPlates = findExistingPlates(candidates.stream()
+                .map(i -> rows.get(i).getPlate())
+                .collect(Collectors.toSet()));
+
+        List<Integer> accepted = new ArrayList<>();
+        for (Integer i : candidates) {
+            CarDto row = rows.get(i);
+            if (!categories.containsKey(row.getCategoryId())) {
+                result.getErrors().add(new BulkImportResultDto.RowError(rowNumbers.get(i), row.getPlate(),
+                        "Category not found with id: " + row.getCategoryId()));
+            } else if (!takenPlates.add(row.getPlate())) {
+                result.getErrors().add(new BulkImportResultDto.RowError(rowNumbers.get(i), row.getPlate(),
+                        "Plate already exists: " + row.getPlate()));
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // 3) Parça parça batch insert
+        for (int from = 0; from < accepted.size(); from += BATCH_SIZE) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + BATCH_SIZE, accepted.size()));
+            try {
+                List<Long> ids = transactionTemplate.execute(status -> insertChunk(chunk, rows, categories));
+                result.getCreatedIds().addAll(Objects.requireNonNull(ids));
+            } catch (RuntimeException e) {
+                log.warn("Bulk import chunk starting at row {} failed, retrying row by row: {}",
+                        rowNumbers.get(chunk.get(0)), e.getMessage());
+                for (Integer i : chunk) {
+                    insertRow(i, rows, rowNumbers, categories, result);
+                }
+            }
+        }
+
+        result.getErrors().sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        result.setImported(result.getCreatedIds().size());
+        result.setFailed(result.getErrors().size());
+        log.info("Bulk import finished: {} imported, {} failed", result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void insertRow(Integer i, List<CarDto> rows, List<Integer> rowNumbers, Map<Long, Category> categories,
+                           BulkImportResultDto result) {
+        CarDto row = rows.get(i);
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> insertChunk(List.of(i), rows, categories));
+            result.getCreatedIds().addAll(Objects.requireNonNull(ids));
+        } catch (RuntimeException e) {
+            log.warn("Bulk import row {} ({}) failed: {}", rowNumbers.get(i), row.getPlate(), e.getMessage());
+            result.getErrors().add(new BulkImportResultDto.RowError(rowNumbers.get(i), row.getPlate(),
+                    insertError(e, row)));
+        }
+    }
+
+    /**
+     * Veritabanı hatasının istemciye dönen kısa karşılığı (SQL mesajı sadece loglanır)
+     */
+    private static String insertError(RuntimeException e, CarDto row) {
+        // flush() EntityManager üzerinden çağrıldığı için Hibernate istisnaları çevrilmeden gelebilir
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DuplicateKeyException
+                    || cause instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                return "Plate already exists: " + row.getPlate();
+            }
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException
+                    || cause instanceof ConstraintViolationException
+                    || cause instanceof DataException) {
+                return "Invalid value (too long or missing)";
+            }
+        }
+        return "Insert failed";
+    }
+
+    private List<Long> insertChunk(List<Integer> chunk, List<CarDto> rows, Map<Long, Category> categories) {
+        List<Car> cars = new ArrayList<>(chunk.size());
+        for (Integer i : chunk) {
+            CarDto row = rows.get(i);
+            Car car = new Car();
+            car.setBrand(row.getBrand());
+            car.setModel(row.getModel());
+            car.setYear(row.getYear());
+            car.setPlate(row.getPlate());
+            car.setDescription(row.getDescription());
+            car.setDailyPrice(row.getDailyPrice());
+            car.setStatus(Car.CarStatus.AVAILABLE);
+            car.setImageUrl(row.getImageUrl());
+            car.setFuelType(row.getFuelType());
+            car.setTransmissionType(row.getTransmissionType());
+            car.setSeatCount(row.getSeatCount());
+            car.setCategory(categories.get(row.getCategoryId()));
+            cars.add(car);
+        }
+
+        carRepository.saveAll(cars);
+        entityManager.flush();
+
+        List<Long> ids = new ArrayList<>(cars.size());
+        for (Car car : cars) {
+            ids.add(car.getId());
+            catalogIndex.onCarSaved(carService.convertToDto(car));
+        }
+        entityManager.clear();
+        return ids;
+    }
+
+    private Set<String> findExistingPlates(Set<String> plates) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = new ArrayList<>(plates);
+        for (int from = 0; from < all.size(); from += IN_CLAUSE_SIZE) {
+            existing.addAll(carRepository.findExistingPlates(all.subList(from, Math.min(from + IN_CLAUSE_SIZE, all.size()))));
+        }
+        return existing;
+    }
+
+    private CarDto toCarDto(Map<String, String> values) {
+        CarDto dto = new CarDto();
+        dto.setBrand(values.get("brand"));
+        dto.setModel(values.get("model"));
+        dto.setYear(parseInteger(values.get("year")));
+        dto.setPlate(values.get("plate"));
+        dto.setDescription(values.get("description"));
+        dto.setDailyPrice(values.get("dailyprice") != null ? Double.valueOf(values.get("dailyprice")) : null);
+        dto.setImageUrl(values.get("imageurl"));
+        dto.setFuelType(values.get("fueltype"));
+        dto.setTransmissionType(values.get("transmissiontype"));
+        dto.setSeatCount(parseInteger(values.get("seatcount")));
+        dto.setCategoryId(values.get("categoryid") != null ? Long.valueOf(values.get("categoryid")) : null);
+        return dto;
+    }
+
+    private static Integer parseInteger(String value) {
+        return value != null ? Integer.valueOf(value) : null;
+    }
+}
@@ -1,24 +1,56 @@
 package org.cms.carrental.service;
 
 import lombok.RequiredArgsConstructor;
+import org.cms.carrental.dto.CarCalendarDto;
 import org.cms.carrental.dto.CarDto;
+import org.cms.carrental.dto.CarSearchResultDto;
+import org.cms.carrental.dto.CursorPage;
+import org.cms.carrental.dto.FleetCalendarDto;
 import org.cms.carrental.entity.Car;
 import org.cms.carrental.entity.Category;
 import org.cms.carrental.repository.CarRepository;
 import org.cms.carrental.repository.CategoryRepository;
+import org.cms.carrental.repository.RentalHistoryRepository;
+import org.cms.carrental.repository.ReservationHistoryRepository;
+import org.cms.carrental.repository.projection.CarRow;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CarService {
 
+    private static final int MAX_CALENDAR_DAYS = 366;
+
     private final CarRepository carRepository;
     private final CategoryRepository categoryRepository;
+    private final ReservationHistoryRepository reservationHistoryRepository;
+    private final RentalHistoryRepository rentalHistoryRepository;
+    private final CarAvailabilityIndex availabilityIndex;
+    private final ReservationSlots reservationSlots;
+    private final CarCatalogIndex catalogIndex;
+
+    /**
+     * Katalog indeksini kur - uygulama açılışında ve IndexSynchronizer'dan
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildCatalogIndex() {
+        catalogIndex.rebuild(carRepository.findAllRowsUncached().stream()
+                .map(CarRow::toDto)
+                .collect(Collectors.toList()));
+    }
 
     @Transactional
     public CarDto createCar(CarDto carDto) {
@@ -40,7 +72,9 @@ public class CarService {
         car.setCategory(category);
 
         Car savedCar = carRepository.save(car);
-        return convertToDto(savedCar);
+        CarDto saved = convertToDto(savedCar);
+        catalogIndex.onCarSaved(saved);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -59,31 +93,102 @@ public class CarService {
 
     @Transactional(readOnly = true)
     public List<CarDto> getAllCars() {
-        return carRepository.findAll().stream()
-                .map(this::convertToDto)
+        return carRepository.findAllRows().stream()
+                .map(CarRow::toDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<CarDto> getCarsPage(Long after, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        List<CarRow> rows = carRepository.findPageAfter(CursorPage.normalizeAfter(after), PageRequest.ofSize(size + 1));
+        return CursorPage.of(rows, size, CarRow::id, CarRow::toDto);
+    }
+
     @Transactional(readOnly = true)
     public List<CarDto> getCarsByCategory(Long categoryId) {
-        return carRepository.findByCategoryId(categoryId).stream()
-                .map(this::convertToDto)
+        return carRepository.findRowsByCategoryId(categoryId).stream()
+                .map(CarRow::toDto)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<CarDto> getCarsByStatus(String status) {
         Car.CarStatus carStatus = Car.CarStatus.valueOf(status);
-        return carRepository.findByStatus(carStatus).stream()
-                .map(this::convertToDto)
+        return carRepository.findRowsByStatus(carStatus).stream()
+                .map(CarRow::toDto)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<CarDto> getAvailableCarsBetweenDates(LocalDate startDate, LocalDate endDate) {
-        return carRepository.findAvailableCarsBetweenDates(startDate, endDate).stream()
-                .map(this::convertToDto)
+        // İndeksler henüz yüklenmediyse (uygulama açılışı) veritabanı sorgusuna düş
+        if (!availabilityIndex.isReady()) {
+            return carRepository.findAvailableRowsBetweenDates(startDate, endDate).stream()
+                    .map(CarRow::toDto)
+                    .collect(Collectors.toList());
+        }
+
+        if (!catalogIndex.isReady()) {
+            return carRepository.findRowsByStatus(Car.CarStatus.AVAILABLE).stream()
+                    .filter(car -> availabilityIndex.isFree(car.id(), startDate, endDate))
+                    .map(CarRow::toDto)
+                    .collect(Collectors.toList());
+        }
+
+        Map<String, List<String>> filters = Map.of(CarCatalogIndex.STATUS, List.of(Car.CarStatus.AVAILABLE.name()));
+        return catalogIndex.search(filters, null, null, false).cars().stream()
+                .filter(car -> availabilityIndex.isFree(car.getId(), startDate, endDate))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Çoklu facet ile araç arama + facet sayıları (bellek içi indeks üzerinden)
+     */
+    public CarSearchResultDto searchCars(List<String> brands, List<String> fuelTypes, List<String> transmissionTypes,
+                                         List<String> seatCounts, List<String> categoryIds, List<String> statuses,
+                                         Double minPrice, Double maxPrice) {
+        if (!catalogIndex.isReady()) {
+            throw new RuntimeException("Car catalog is not ready yet, please retry");
+        }
+
+        Map<String, List<String>> filters = new LinkedHashMap<>();
+        filters.put(CarCatalogIndex.BRAND, brands);
+        filters.put(CarCatalogIndex.FUEL_TYPE, fuelTypes);
+        filters.put(CarCatalogIndex.TRANSMISSION_TYPE, transmissionTypes);
+        filters.put(CarCatalogIndex.SEAT_COUNT, seatCounts);
+        filters.put(CarCatalogIndex.CATEGORY, categoryIds);
+        filters.put(CarCatalogIndex.STATUS, statuses);
+
+        CarCatalogIndex.SearchResult result = catalogIndex.search(filters, minPrice, maxPrice, true);
+        return new CarSearchResultDto(result.cars().size(), result.cars(), result.facetCounts());
+    }
+
+    /**
+     * Filo takvimi - her araç için [from, to] penceresinin günlük doluluk bitmap'i
+     */
+    @Transactional(readOnly = true)
+    public FleetCalendarDto getFleetCalendar(LocalDate from, LocalDate to, Long categoryId) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days <= 0) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (days > MAX_CALENDAR_DAYS) {
+            throw new RuntimeException("Calendar window cannot exceed " + MAX_CALENDAR_DAYS + " days");
+        }
+        if (!availabilityIndex.isReady()) {
+            throw new RuntimeException("Availability calendar is not ready yet, please retry");
+        }
+
+        List<CarRow> cars = categoryId != null
+                ? carRepository.findRowsByCategoryId(categoryId)
+                : carRepository.findAllRows();
+
+        List<CarCalendarDto> calendars = cars.stream()
+                .map(car -> toCalendarDto(car, availabilityIndex.occupancy(car.id(), from, (int) days), (int) days))
                 .collect(Collectors.toList());
+
+        return new FleetCalendarDto(from, to, (int) days, calendars);
     }
 
     @Transactional
@@ -113,7 +218,9 @@ public class CarService {
         }
 
         Car updatedCar = carRepository.save(car);
-        return convertToDto(updatedCar);
+        CarDto updated = convertToDto(updatedCar);
+        catalogIndex.onCarSaved(updated);
+        return updated;
     }
 
     @Transactional
@@ -121,10 +228,38 @@ public class CarService {
         if (!carRepository.existsById(id)) {
             throw new RuntimeException("Car not found with id: " + id);
         }
+        reservationSlots.releaseCar(id);
+        // Arşivdeki rezervasyon ve kiralamaları (FK yok, cascade silmez)
+        rentalHistoryRepository.deleteByCarId(id);
+        reservationHistoryRepository.deleteByCarId(id);
         carRepository.deleteById(id);
+        availabilityIndex.onCarDeleted(id);
+        catalogIndex.onCarDeleted(id);
+    }
+
+    private CarCalendarDto toCalendarDto(CarRow car, long[] bits, int days) {
+        byte[] bytes = new byte[(days + 7) >>> 3];
+        int occupied = 0;
+        for (int i = 0; i < bits.length; i++) {
+            occupied += Long.bitCount(bits[i]);
+            for (int b = 0; b < 8 && (i << 3) + b < bytes.length; b++) {
+                bytes[(i << 3) + b] = (byte) (bits[i] >>> (b << 3));
+            }
+        }
+
+        return new CarCalendarDto(
+                car.id(),
+                car.brand(),
+                car.model(),
+                car.plate(),
+                car.status().name(),
+                car.categoryId(),
+                Base64.getEncoder().encodeToString(bytes),
+                occupied
+        );
     }
 
-    private CarDto convertToDto(Car car) {
+    CarDto convertToDto(Car car) {
         CarDto dto = new CarDto();
         dto.setId(car.getId());
         dto.setBrand(car.getBrand());
@@ -15,6 +15,7 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CarCatalogIndex catalogIndex;
 
     @Transactional
     public CategoryDto createCategory(CategoryDto categoryDto) {
@@ -57,6 +58,7 @@ public class CategoryService {
         category.setDescription(categoryDto.getDescription());
 
         Category updatedCategory = categoryRepository.save(category);
+        catalogIndex.onCategoryRenamed(updatedCategory.getId(), updatedCategory.getName());
         return convertToDto(updatedCategory);
     }
 
@@ -0,0 +1,103 @@
+package org.cms.carrental.service;
+
+import org.cms.carrental.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Basit devre kesici
+ *
+ * CLOSED: çağrılar geçer; art arda failureThreshold hata (veya slowCall'dan uzun süren çağrı) devreyi açar.
+ * OPEN: çağrılar upstream'e gitmeden reddedilir; openDuration sonunda HALF_OPEN'a geçilir.
+ * HALF_OPEN: tek bir deneme (probe) çağrısına izin verilir; başarılıysa CLOSED, değilse tekrar OPEN.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long slowCallNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Duration slowCall,
+                          LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+        this.slowCallNanos = slowCall.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public <T> T call(Supplier<T> action) {
+        acquirePermission();
+        long start = nanoClock.getAsLong();
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            onFailure();
+            throw e;
+        }
+        // Yavaş ama başarılı çağrı sonucu döner, devre açısından hata sayılır
+        if (nanoClock.getAsLong() - start > slowCallNanos) {
+            onFailure();
+        } else {
+            onSuccess();
+        }
+        return result;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private synchronized void acquirePermission() {
+        long now = nanoClock.getAsLong();
+        if (state == State.OPEN && now - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        switch (state) {
+            case CLOSED -> {
+                return;
+            }
+            case HALF_OPEN -> {
+                if (!probeInFlight) {
+                    probeInFlight = true;
+                    return;
+                }
+                throw new ServiceUnavailableException(name + " is being probed, try again shortly", Duration.ofSeconds(1));
+            }
+            default -> throw new ServiceUnavailableException(name + " is unavailable (circuit open)",
+                    Duration.ofNanos(Math.max(0L, openNanos - (now - openedAt))));
+        }
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            probeInFlight = false;
+        }
+    }
+
+    private synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            consecutiveFailures = 0;
+            probeInFlight = false;
+        }
+    }
+}
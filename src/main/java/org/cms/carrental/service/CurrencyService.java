@@ -3,54 +3,28 @@ package org.cms.carrental.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * External API Integration - Döviz Kuru Servisi
- * API: https://api.exchangerate-api.com (Ücretsiz, kayıt gerektirmez)
+ * Kurlar ExchangeRateCache üzerinden alınır (base birimine göre önbellek, upstream: ExchangeRateProvider)
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CurrencyService {
 
-    private final RestTemplate restTemplate;
-
-    private static final String API_URL = "https://api.exchangerate-api.com/v4/latest/";
+    private final ExchangeRateCache exchangeRateCache;
 
     /**
      * Belirtilen para biriminden TL'ye çevir
      */
     public Double convertToTRY(Double amount, String fromCurrency) {
-        try {
-            log.info("Converting {} {} to TRY", amount, fromCurrency);
-
-            String url = API_URL + fromCurrency;
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-            if (response != null && response.containsKey("rates")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Double> rates = (Map<String, Double>) response.get("rates");
-                Double tryRate = rates.get("TRY");
-
-                if (tryRate != null) {
-                    Double result = amount * tryRate;
-                    log.info("Conversion successful: {} {} = {} TRY", amount, fromCurrency, result);
-                    return result;
-                }
-            }
-
-            log.warn("Could not get TRY rate, returning original amount");
-            return amount;
-
-        } catch (Exception e) {
-            log.error("Currency API error: {}", e.getMessage());
-            return amount; // Hata durumunda orijinal tutarı döndür
-        }
+        return convertCurrency(amount, fromCurrency, "TRY");
     }
 
     /**
@@ -79,23 +53,11 @@ public class CurrencyService {
      */
     public Double convertCurrency(Double amount, String from, String to) {
         try {
-            log.info("Converting {} {} to {}", amount, from, to);
-
-            String url = API_URL + from;
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-            if (response != null && response.containsKey("rates")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Double> rates = (Map<String, Double>) response.get("rates");
-                Double rate = rates.get(to);
-
-                if (rate != null) {
-                    Double result = amount * rate;
-                    log.info("Conversion successful: {} {} = {} {}", amount, from, result, to);
-                    return result;
-                }
+            double rate = exchangeRateCache.get(from).rate(to);
+            if (!Double.isNaN(rate)) {
+                Double result = amount * rate;
+                log.debug("Conversion successful: {} {} = {} {}", amount, from, result, to);
+                return result;
             }
 
             log.warn("Could not get {} rate, returning original amount", to);
@@ -103,7 +65,7 @@ public class CurrencyService {
 
         } catch (Exception e) {
             log.error("Currency API error: {}", e.getMessage());
-            return amount;
+            return amount; // Hata durumunda orijinal tutarı döndür
         }
     }
 
@@ -112,13 +74,17 @@ public class CurrencyService {
      */
     public Map<String, Object> getExchangeRates(String baseCurrency) {
         try {
-            log.info("Fetching exchange rates for base currency: {}", baseCurrency);
+            RateSnapshot snapshot = exchangeRateCache.get(baseCurrency);
 
-            String url = API_URL + baseCurrency;
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Double> rates = new LinkedHashMap<>();
+            for (int i = 0; i < snapshot.codes().length; i++) {
+                rates.put(snapshot.codes()[i], snapshot.rates()[i]);
+            }
 
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("base", snapshot.base());
+            response.put("asOf", snapshot.asOf());
+            response.put("rates", rates);
             return response;
 
         } catch (Exception e) {
@@ -128,26 +94,50 @@ public class CurrencyService {
     }
 
     /**
-     * İki para birimi arasındaki kuru getir
+     * base biriminden tüm kurlar - toplu fiyatlandırma için.
+     * Diğer metotların aksine kur alınamazsa hata fırlatır (yanlış fiyat göstermemek için).
      */
-    public Double getExchangeRate(String from, String to) {
-        try {
-            String url = API_URL + from;
+    public RateSnapshot getRateSnapshot(String base) {
+        return exchangeRateCache.get(base);
+    }
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+    /**
+     * İki birim arasındaki kur ve tablonun tarihi. Kur alınamazsa hata fırlatır.
+     */
+    public ExchangeRate getRate(String from, String to) {
+        return toExchangeRate(exchangeRateCache.get(from), from, to);
+    }
 
-            if (response != null && response.containsKey("rates")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Double> rates = (Map<String, Double>) response.get("rates");
-                return rates.getOrDefault(to, 1.0);
-            }
+    /**
+     * Beklemeden kur - önbellekte/kalıcı kayıtta yoksa boş döner (sayfa render'ları için)
+     */
+    public Optional<ExchangeRate> findRate(String from, String to) {
+        RateSnapshot snapshot = exchangeRateCache.getIfPresent(from);
+        if (snapshot == null || Double.isNaN(snapshot.rate(to))) {
+            return Optional.empty();
+        }
+        return Optional.of(toExchangeRate(snapshot, from, to));
+    }
 
-            return 1.0;
+    /**
+     * İki para birimi arasındaki kuru getir
+     */
+    public Double getExchangeRate(String from, String to) {
+        try {
+            double rate = exchangeRateCache.get(from).rate(to);
+            return Double.isNaN(rate) ? 1.0 : rate;
 
         } catch (Exception e) {
             log.error("Error getting exchange rate {}/{}: {}", from, to, e.getMessage());
             return 1.0;
         }
     }
+
+    private static ExchangeRate toExchangeRate(RateSnapshot snapshot, String from, String to) {
+        double rate = snapshot.rate(to);
+        if (Double.isNaN(rate)) {
+            throw new RuntimeException("Unsupported currency: " + to);
+        }
+        return new ExchangeRate(snapshot.base(), to.toUpperCase(Locale.ROOT), rate, snapshot.asOf());
+    }
 }
@@ -0,0 +1,9 @@
+package org.cms.carrental.service;
+
+import java.time.Instant;
+
+/**
+ * İki birim arasındaki kur ve hangi kur tablosundan geldiği (asOf)
+ */
+public record ExchangeRate(String from, String to, double rate, Instant asOf) {
+}
@@ -0,0 +1,45 @@
+package org.cms.carrental.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * External API Integration - exchangerate-api.com (Ücretsiz, kayıt gerektirmez)
+ */
+@Component
+@Qualifier(GuardedExchangeRateProvider.UPSTREAM)
+@Profile("!perf")
+@Slf4j
+public class ExchangeRateApiProvider implements ExchangeRateProvider {
+
+    private final RestTemplate restTemplate;
+    private final String apiUrl;
+
+    public ExchangeRateApiProvider(RestTemplate restTemplate,
+                                   @Value("${app.currency.api-url:https://api.exchangerate-api.com/v4/latest/}") String apiUrl) {
+        this.restTemplate = restTemplate;
+        this.apiUrl = apiUrl;
+    }
+
+    @Override
+    public RateSnapshot fetch(String base) {
+        log.info("Fetching exchange rates for base currency: {}", base);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> response = restTemplate.getForObject(apiUrl + base, Map.class);
+
+        if (response == null || !(response.get("rates") instanceof Map<?, ?>)) {
+            throw new RuntimeException("Exchange rate response has no rates for " + base);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Number> rates = (Map<String, Number>) response.get("rates");
+        return RateSnapshot.of(base, rates, Instant.now());
+    }
+}
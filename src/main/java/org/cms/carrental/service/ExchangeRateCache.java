@@ -0,0 +1,194 @@
+package org.cms.carrental.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Döviz kuru önbelleği - base birimine göre
+ *
+ * TTL içindeki kurlar doğrudan döner. TTL geçmiş kurlar da hemen döner, yenileme arka planda
+ * yapılır (stale-while-revalidate); sadece hiç kur yokken beklenir. Aynı base için eşzamanlı
+ * tüm yenileme istekleri tek upstream çağrısını paylaşır (single-flight).
+ */
+@Component
+@Slf4j
+public class ExchangeRateCache {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final ExchangeRateProvider provider;
+    private final long ttlNanos;
+    private final long waitTimeoutNanos;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<RateSnapshot>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Timer refreshSuccess;
+    private final Timer refreshFailure;
+
+    public ExchangeRateCache(ExchangeRateProvider provider,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.currency.rates.ttl:10m}") Duration ttl,
+                             @Value("${app.currency.rates.wait-timeout:3s}") Duration waitTimeout) {
+        this.provider = provider;
+        this.ttlNanos = ttl.toNanos();
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+
+        this.hits = cacheCounter(meterRegistry, "hit");
+        this.staleHits = cacheCounter(meterRegistry, "stale");
+        this.misses = cacheCounter(meterRegistry, "miss");
+        this.refreshSuccess = refreshTimer(meterRegistry, "success");
+        this.refreshFailure = refreshTimer(meterRegistry, "failure");
+    }
+
+    /**
+     * base için kurlar. Hiç kur yoksa yenilemenin bitmesi en fazla wait-timeout kadar beklenir;
+     * yenileme başarısız olursa veya süre dolarsa ServiceUnavailableException fırlatılır.
+     */
+    public RateSnapshot get(String base) {
+        String key = base.toUpperCase(Locale.ROOT);
+        RateSnapshot cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        misses.increment();
+        try {
+            return refresh(key).get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ServiceUnavailableException unavailable) {
+                throw unavailable;
+            }
+            throw new ServiceUnavailableException("Exchange rates unavailable for " + key + ": "
+                    + e.getCause().getMessage(), RETRY_AFTER);
+        } catch (TimeoutException e) {
+            // Yenileme arka planda sürer, sonraki istekler önbellekten alır
+            throw new ServiceUnavailableException("Exchange rates for " + key + " are still loading", RETRY_AFTER);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while loading exchange rates for " + key, RETRY_AFTER);
+        }
+    }
+
+    /**
+     * Beklemeden: önbellekteki kurlar veya null (bu durumda yenileme arka planda başlar)
+     */
+    public RateSnapshot getIfPresent(String base) {
+        String key = base.toUpperCase(Locale.ROOT);
+        RateSnapshot cached = lookup(key);
+        if (cached == null) {
+            misses.increment();
+            refresh(key);
+        }
+        return cached;
+    }
+
+    /**
+     * Kalıcı kayıttan gelen tabloyu yükle - önbellekte daha yenisi varsa yok sayılır.
+     * Yaşı asOf'tan hesaplanır, TTL geçmişse ilk istekte yenilenir.
+     */
+    public void seed(RateSnapshot snapshot) {
+        long ageNanos = Math.max(0L, Duration.between(snapshot.asOf(), Instant.now()).toNanos());
+        Entry seeded = new Entry(snapshot, System.nanoTime() - ageNanos);
+        entries.merge(snapshot.base(), seeded,
+                (current, candidate) -> current.snapshot().asOf().isBefore(candidate.snapshot().asOf()) ? candidate : current);
+    }
+
+    public Set<String> bases() {
+        return Set.copyOf(entries.keySet());
+    }
+
+    /**
+     * base için yenileme başlat; zaten devam eden bir yenileme varsa onu döndür
+     */
+    public CompletableFuture<RateSnapshot> refresh(String base) {
+        String key = base.toUpperCase(Locale.ROOT);
+        CompletableFuture<RateSnapshot> created = new CompletableFuture<>();
+        CompletableFuture<RateSnapshot> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+
+        refreshExecutor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                RateSnapshot snapshot = provider.fetch(key);
+                entries.put(key, new Entry(snapshot, System.nanoTime()));
+                refreshSuccess.record(Duration.ofNanos(System.nanoTime() - start));
+                inFlight.remove(key, created);
+                created.complete(snapshot);
+            } catch (Throwable e) {
+                refreshFailure.record(Duration.ofNanos(System.nanoTime() - start));
+                if (e instanceof ServiceUnavailableException) {
+                    // Devre açık / kapasite dolu - upstream'e gidilmedi
+                    log.debug("Exchange rate refresh for {} rejected: {}", key, e.getMessage());
+                } else {
+                    log.error("Exchange rate refresh for {} failed: {}", key, e.getMessage());
+                }
+                inFlight.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        });
+        return created;
+    }
+
+    private RateSnapshot lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt() < ttlNanos) {
+            hits.increment();
+        } else {
+            staleHits.increment();
+            refresh(key);
+        }
+        return entry.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private static Counter cacheCounter(MeterRegistry registry, String result) {
+        return Counter.builder("currency.rates.cache")
+                .description("Exchange rate cache lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Timer refreshTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("currency.rates.refresh")
+                .description("Upstream exchange rate refresh latency")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private record Entry(RateSnapshot snapshot, long loadedAt) {
+    }
+}
@@ -0,0 +1,12 @@
+package org.cms.carrental.service;
+
+/**
+ * Döviz kuru kaynağı - gerçek API yerine testlerde yerel bir stub kullanılabilir
+ */
+public interface ExchangeRateProvider {
+
+    /**
+     * base biriminden tüm kurlar. Kur alınamazsa exception fırlatır.
+     */
+    RateSnapshot fetch(String base);
+}
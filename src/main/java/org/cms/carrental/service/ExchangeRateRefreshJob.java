@@ -0,0 +1,77 @@
+package org.cms.carrental.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Döviz kurlarını istek yolunun dışında yeniler ve kalıcı hale getirir.
+ *
+ * Açılışta son kayıtlı kur tabloları önbelleğe yüklenir; böylece API yavaş veya erişilemezken
+ * de dönüşümler beklemeden (asOf ile birlikte) eski tablodan yapılır.
+ * Zamanlanmış tur yenilemeleri en fazla refresh-timeout kadar bekler; scheduler thread'i diğer işlere
+ * (replika gecikme kontrolü, indeks senkronu, arşivleme) yavaş bir upstream yüzünden kapanmaz.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExchangeRateRefreshJob {
+
+    private final ExchangeRateCache exchangeRateCache;
+    private final ExchangeRateSnapshotStore snapshotStore;
+
+    @Value("${app.currency.rates.bases:TRY,USD,EUR}")
+    private List<String> bases;
+
+    @Value("${app.currency.rates.refresh-timeout:PT20S}")
+    private Duration refreshTimeout;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshots() {
+        List<RateSnapshot> snapshots = snapshotStore.loadAll();
+        snapshots.forEach(exchangeRateCache::seed);
+        log.info("Loaded {} persisted exchange rate snapshots", snapshots.size());
+    }
+
+    @Scheduled(initialDelayString = "${app.currency.rates.refresh-initial-delay:PT0S}",
+            fixedDelayString = "${app.currency.rates.refresh-interval:PT5M}")
+    public void refresh() {
+        Set<String> targets = new LinkedHashSet<>();
+        bases.forEach(base -> targets.add(base.trim().toUpperCase(Locale.ROOT)));
+        targets.addAll(exchangeRateCache.bases());
+
+        CompletableFuture<?>[] refreshes = targets.stream()
+                .map(base -> exchangeRateCache.refresh(base)
+                        .thenAccept(snapshotStore::save)
+                        .exceptionally(e -> {
+                            // Son kayıtlı tablo sunulmaya devam eder
+                            log.warn("Exchange rate snapshot for {} not refreshed: {}", base, e.getMessage());
+                            return null;
+                        }))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(refreshes).get(refreshTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Yenilemeler refreshExecutor'da sürer; tamamlananlar yine kaydedilir
+            log.warn("Exchange rate refresh still running after {}, not waiting", refreshTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Her yenileme kendi hatasını yukarıda loglar
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.cms.carrental.service;
+
+import lombok.RequiredArgsConstructor;
+import org.cms.carrental.entity.ExchangeRateSnapshot;
+import org.cms.carrental.repository.ExchangeRateSnapshotRepository;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * RateSnapshot <-> exchange_rate_snapshots dönüşümü
+ */
+@Component
+@RequiredArgsConstructor
+public class ExchangeRateSnapshotStore {
+
+    private final ExchangeRateSnapshotRepository snapshotRepository;
+
+    public void save(RateSnapshot snapshot) {
+        ByteBuffer rates = ByteBuffer.allocate(snapshot.rates().length * Double.BYTES);
+        rates.asDoubleBuffer().put(snapshot.rates());
+        snapshotRepository.save(new ExchangeRateSnapshot(
+                snapshot.base(), snapshot.asOf(), String.join(",", snapshot.codes()), rates.array()));
+    }
+
+    public List<RateSnapshot> loadAll() {
+        return snapshotRepository.findAll().stream()
+                .map(ExchangeRateSnapshotStore::toRateSnapshot)
+                .collect(Collectors.toList());
+    }
+
+    private static RateSnapshot toRateSnapshot(ExchangeRateSnapshot row) {
+        String[] codes = row.getCodes().isEmpty() ? new String[0] : row.getCodes().split(",");
+        double[] rates = new double[codes.length];
+        ByteBuffer.wrap(row.getRates()).asDoubleBuffer().get(rates);
+        return new RateSnapshot(row.getBaseCurrency(), codes, rates, row.getAsOf());
+    }
+}
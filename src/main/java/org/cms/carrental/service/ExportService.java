@@ -0,0 +1,141 @@
+package org.cms.carrental.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.dto.RentalDto;
+import org.cms.carrental.dto.ReservationDto;
+import org.cms.carrental.entity.Rental;
+import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.repository.RentalRepository;
+import org.cms.carrental.repository.ReservationRepository;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Rezervasyon ve kiralama dışa aktarımı (NDJSON / CSV)
+ *
+ * Satırlar veritabanından ileri yönlü stream ile okunur ve doğrudan response'a yazılır;
+ * persistence context periyodik olarak temizlenir, böylece bellek kullanımı satır sayısından bağımsızdır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final ReservationRepository reservationRepository;
+    private final RentalRepository rentalRepository;
+    private final ReservationService reservationService;
+    private final RentalService rentalService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportReservations(Format format, OutputStream out) throws IOException {
+        String header = CsvFormat.row("id", "startDate", "endDate", "totalPrice", "status", "notes",
+                "userId", "userName", "carId", "carBrand", "carModel", "carPlate");
+
+        try (Stream<Reservation> rows = reservationRepository.streamAllForExport()) {
+            long count = write(rows, format, header, out, reservation -> {
+                ReservationDto dto = reservationService.convertToDto(reservation);
+                return format == Format.CSV
+                        ? CsvFormat.row(dto.getId(), dto.getStartDate(), dto.getEndDate(), dto.getTotalPrice(),
+                                dto.getStatus(), dto.getNotes(), dto.getUserId(), dto.getUserName(), dto.getCarId(),
+                                dto.getCarBrand(), dto.getCarModel(), dto.getCarPlate())
+                        : toJsonLine(dto);
+            });
+            log.info("Exported {} reservations as {}", count, format);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportRentals(Format format, OutputStream out) throws IOException {
+        String header = CsvFormat.row("id", "reservationId", "pickupDate", "returnDate", "actualReturnDate",
+                "initialMileage", "finalMileage", "additionalCharges", "status", "notes");
+
+        try (Stream<Rental> rows = rentalRepository.streamAllForExport()) {
+            long count = write(rows, format, header, out, rental -> {
+                RentalDto dto = rentalService.convertToDto(rental);
+                return format == Format.CSV
+                        ? CsvFormat.row(dto.getId(), dto.getReservationId(), dto.getPickupDate(), dto.getReturnDate(),
+                                dto.getActualReturnDate(), dto.getInitialMileage(), dto.getFinalMileage(),
+                                dto.getAdditionalCharges(), dto.getStatus(), dto.getNotes())
+                        : toJsonLine(dto);
+            });
+            log.info("Exported {} rentals as {}", count, format);
+        }
+    }
+
+    private <T> long write(Stream<T> rows, Format format, String csvHeader, OutputStream out,
+                           Function<T, String> toLine) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(csvHeader);
+        }
+
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writer.write(toLine.apply(iterator.next()));
+            if (++count % FLUSH_EVERY == 0) {
+                // Yazılanları istemciye gönder ve yönetilen entity'leri bırak
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private String toJsonLine(Object dto) {
+        try {
+            return objectMapper.writeValueAsString(dto) + "\n";
+        } catch (IOException e) {
+            throw new RuntimeException("Export serialization failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.cms.carrental.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * perf profili için sabit döviz kurları - dış API'ye gidilmez, her çalıştırmada aynı sonuç.
+ * Tablo 1 USD karşılığıdır; diğer base birimleri çapraz kurla hesaplanır.
+ */
+@Component
+@Qualifier(GuardedExchangeRateProvider.UPSTREAM)
+@Profile("perf")
+public class FixedExchangeRateProvider implements ExchangeRateProvider {
+
+    private static final Map<String, Double> PER_USD = Map.of(
+            "USD", 1.0,
+            "EUR", 0.92,
+            "GBP", 0.79,
+            "TRY", 32.5,
+            "JPY", 151.0,
+            "CHF", 0.90,
+            "CAD", 1.36,
+            "AUD", 1.52);
+
+    private static final Instant AS_OF = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Override
+    public RateSnapshot fetch(String base) {
+        Double baseRate = PER_USD.get(base.toUpperCase(Locale.ROOT));
+        if (baseRate == null) {
+            throw new RuntimeException("Exchange rate response has no rates for " + base);
+        }
+        Map<String, Double> rates = new TreeMap<>();
+        PER_USD.forEach((code, rate) -> rates.put(code, rate / baseRate));
+        return RateSnapshot.of(base, rates, AS_OF);
+    }
+}
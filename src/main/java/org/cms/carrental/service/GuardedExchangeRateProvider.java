@@ -0,0 +1,69 @@
+package org.cms.carrental.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.cms.carrental.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Döviz kuru API'si etrafında bulkhead + devre kesici.
+ *
+ * Upstream takılırsa eşzamanlı en fazla max-concurrent çağrı bekler, gerisi hemen reddedilir;
+ * art arda hatalar devreyi açar ve açık devrede çağrılar upstream'e hiç gitmez.
+ * Reddedilen çağrılar ServiceUnavailableException fırlatır (önbellek eski kuru sunmaya devam eder).
+ */
+@Component
+@Primary
+public class GuardedExchangeRateProvider implements ExchangeRateProvider {
+
+    // Korunan gerçek kaynak (API veya perf profilinde sabit kurlar)
+    public static final String UPSTREAM = "upstreamExchangeRates";
+
+    private final ExchangeRateProvider delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Counter rejected;
+
+    @Autowired
+    public GuardedExchangeRateProvider(@Qualifier(UPSTREAM) ExchangeRateProvider delegate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.currency.breaker.failure-threshold:5}") int failureThreshold,
+                                       @Value("${app.currency.breaker.open-duration:30s}") Duration openDuration,
+                                       @Value("${app.currency.breaker.slow-call:3s}") Duration slowCall,
+                                       @Value("${app.currency.bulkhead.max-concurrent:4}") int maxConcurrent,
+                                       @Value("${app.currency.bulkhead.max-wait:0s}") Duration maxWait) {
+        this(delegate, meterRegistry,
+                new CircuitBreaker("Exchange rate API", failureThreshold, openDuration, slowCall, System::nanoTime),
+                new Bulkhead("Exchange rate API", maxConcurrent, maxWait));
+    }
+
+    GuardedExchangeRateProvider(ExchangeRateProvider delegate, MeterRegistry meterRegistry,
+                                CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.rejected = Counter.builder("currency.rates.rejected")
+                .description("Exchange rate calls rejected by the circuit breaker or bulkhead")
+                .register(meterRegistry);
+        Gauge.builder("currency.rates.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public RateSnapshot fetch(String base) {
+        try {
+            return bulkhead.call(() -> circuitBreaker.call(() -> delegate.fetch(base)));
+        } catch (ServiceUnavailableException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+}
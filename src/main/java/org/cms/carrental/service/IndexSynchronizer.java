@@ -0,0 +1,79 @@
+package org.cms.carrental.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.repository.CarRepository;
+import org.cms.carrental.repository.ReservationRepository;
+import org.cms.carrental.repository.projection.TableVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bellek içi indeksleri (müsaitlik, katalog) veritabanıyla uzlaştırır.
+ *
+ * Her instance kendi yazmalarını indekslere commit sonrası uygular; başka bir instance'ın yaptığı
+ * rezervasyon, iptal veya araç değişikliği buraya ancak bu senkronizasyonla gelir.
+ * Her turda tablo başına tek bir sayım sorgusu (TableVersion) çalışır; işaret değiştiyse ilgili indeks yeniden
+ * yüklenir. İşaretin göremeyeceği değişiklikler (kategori adı, instance saatleri arası kayma) için
+ * full-sync-interval dolunca iki indeks de koşulsuz yeniden yüklenir.
+ *
+ * İşaret yüklemeden önce okunur: yükleme sırasında gelen bir yazma işareti ilerletir, sonraki turda tekrar yüklenir.
+ */
+@Component
+@Slf4j
+public class IndexSynchronizer {
+
+    private final ReservationRepository reservationRepository;
+    private final CarRepository carRepository;
+    private final CarAvailabilityIndex availabilityIndex;
+    private final CarService carService;
+    private final Duration fullSyncInterval;
+
+    private TableVersion reservationsVersion;
+    private TableVersion carsVersion;
+    private long lastFullSync = System.nanoTime();
+
+    public IndexSynchronizer(ReservationRepository reservationRepository,
+                             CarRepository carRepository,
+                             CarAvailabilityIndex availabilityIndex,
+                             CarService carService,
+                             @Value("${app.index.full-sync-interval:PT10M}") Duration fullSyncInterval) {
+        this.reservationRepository = reservationRepository;
+        this.carRepository = carRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.carService = carService;
+        this.fullSyncInterval = fullSyncInterval;
+    }
+
+    /**
+     * İlk turda işaretler henüz bilinmediği için iki indeks de bir kez yeniden yüklenir
+     */
+    @Scheduled(initialDelayString = "${app.index.sync-interval:PT15S}",
+            fixedDelayString = "${app.index.sync-interval:PT15S}")
+    public void sync() {
+        long now = System.nanoTime();
+        boolean full = now - lastFullSync >= fullSyncInterval.toNanos();
+        try {
+            TableVersion reservations = reservationRepository.findActiveVersion();
+            if (full || !reservations.equals(reservationsVersion)) {
+                availabilityIndex.load();
+                reservationsVersion = reservations;
+            }
+
+            TableVersion cars = carRepository.findVersion();
+            if (full || !cars.equals(carsVersion)) {
+                carService.buildCatalogIndex();
+                carsVersion = cars;
+            }
+
+            if (full) {
+                lastFullSync = now;
+            }
+        } catch (RuntimeException e) {
+            // İşaret güncellenmedi; sonraki tur tekrar dener
+            log.warn("Index sync failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.cms.carrental.service;
+
+import lombok.RequiredArgsConstructor;
+import org.cms.carrental.dto.CarDto;
+import org.cms.carrental.dto.CarQuoteDto;
+import org.cms.carrental.dto.PriceQuoteDto;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Çoklu para birimi fiyat teklifi
+ *
+ * Araç fiyatları TL'dir. Kurlar tek istekle alınır ve istenen birimler için double[] vektöre
+ * dönüştürülür; her araç için fiyatlar bu vektörle çarpılarak hesaplanır (araç başına HTTP çağrısı yok).
+ */
+@Service
+@RequiredArgsConstructor
+public class PriceQuoteService {
+
+    private static final String BASE_CURRENCY = "TRY";
+
+    private final CarService carService;
+    private final CurrencyService currencyService;
+
+    public PriceQuoteDto quote(LocalDate startDate, LocalDate endDate, List<String> currencies) {
+        long days = ChronoUnit.DAYS.between(startDate, endDate);
+        if (days <= 0) {
+            throw new RuntimeException("End date must be after start date");
+        }
+
+        List<String> codes = currencies.stream()
+                .map(code -> code.trim().toUpperCase(Locale.ROOT))
+                .filter(code -> !code.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        if (codes.isEmpty()) {
+            throw new RuntimeException("At least one currency is required");
+        }
+
+        RateSnapshot snapshot = currencyService.getRateSnapshot(BASE_CURRENCY);
+        double[] rates = snapshot.vector(codes);
+
+        List<CarDto> cars = carService.getAvailableCarsBetweenDates(startDate, endDate);
+        List<CarQuoteDto> quotes = new ArrayList<>(cars.size());
+        for (CarDto car : cars) {
+            double dailyPrice = car.getDailyPrice();
+            double total = dailyPrice * days;
+            double[] dailyPrices = new double[rates.length];
+            double[] totals = new double[rates.length];
+            for (int i = 0; i < rates.length; i++) {
+                dailyPrices[i] = round(dailyPrice * rates[i]);
+                totals[i] = round(total * rates[i]);
+            }
+            quotes.add(new CarQuoteDto(car.getId(), car.getBrand(), car.getModel(), car.getPlate(),
+                    car.getCategoryName(), car.getDailyPrice(), dailyPrices, totals));
+        }
+
+        return new PriceQuoteDto(startDate, endDate, days, BASE_CURRENCY, codes, rates, snapshot.asOf(), quotes);
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+}
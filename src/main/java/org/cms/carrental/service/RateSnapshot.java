@@ -0,0 +1,56 @@
+package org.cms.carrental.service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tek seferde alınmış döviz kurları - base biriminden diğer birimlere.
+ * Kodlar sıralı tutulur, kur araması binary search'tür; kurlar primitive double[].
+ */
+public record RateSnapshot(String base, String[] codes, double[] rates, Instant asOf) {
+
+    public static RateSnapshot of(String base, Map<String, ? extends Number> rates, Instant asOf) {
+        String normalizedBase = base.toUpperCase(Locale.ROOT);
+        String[] codes = rates.keySet().stream()
+                .map(code -> code.toUpperCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+        double[] values = new double[codes.length];
+        rates.forEach((code, rate) -> {
+            int idx = Arrays.binarySearch(codes, code.toUpperCase(Locale.ROOT));
+            values[idx] = rate.doubleValue();
+        });
+        return new RateSnapshot(normalizedBase, codes, values, asOf);
+    }
+
+    /**
+     * base -> code kuru, bilinmiyorsa NaN
+     */
+    public double rate(String code) {
+        String normalized = code.toUpperCase(Locale.ROOT);
+        if (normalized.equals(base)) {
+            return 1.0;
+        }
+        int idx = Arrays.binarySearch(codes, normalized);
+        return idx >= 0 ? rates[idx] : Double.NaN;
+    }
+
+    /**
+     * İstenen birimlerin kurları, aynı sırayla
+     */
+    public double[] vector(List<String> currencies) {
+        double[] vector = new double[currencies.size()];
+        for (int i = 0; i < vector.length; i++) {
+            double rate = rate(currencies.get(i));
+            if (Double.isNaN(rate)) {
+                throw new RuntimeException("Unsupported currency: " + currencies.get(i));
+            }
+            vector[i] = rate;
+        }
+        return vector;
+    }
+}
@@ -1,17 +1,22 @@
 package org.cms.carrental.service;
 
 import lombok.RequiredArgsConstructor;
+import org.cms.carrental.dto.CursorPage;
 import org.cms.carrental.dto.RentalDto;
 import org.cms.carrental.entity.Car;
 import org.cms.carrental.entity.Rental;
 import org.cms.carrental.entity.Reservation;
 import org.cms.carrental.repository.CarRepository;
+import org.cms.carrental.repository.RentalHistoryRepository;
 import org.cms.carrental.repository.RentalRepository;
 import org.cms.carrental.repository.ReservationRepository;
+import org.cms.carrental.repository.projection.RentalRow;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,8 +25,12 @@ import java.util.stream.Collectors;
 public class RentalService {
 
     private final RentalRepository rentalRepository;
+    private final RentalHistoryRepository rentalHistoryRepository;
     private final ReservationRepository reservationRepository;
     private final CarRepository carRepository;
+    private final CarAvailabilityIndex availabilityIndex;
+    private final CarCatalogIndex catalogIndex;
+    private final ReservationSlots reservationSlots;
 
     @Transactional
     public RentalDto createRental(RentalDto rentalDto) {
@@ -42,6 +51,7 @@ public class RentalService {
         Car car = reservation.getCar();
         car.setStatus(Car.CarStatus.RENTED);
         carRepository.save(car);
+        catalogIndex.onCarStatusChanged(car.getId(), car.getStatus().name());
 
         Rental rental = new Rental();
         rental.setPickupDate(rentalDto.getPickupDate() != null ? rentalDto.getPickupDate() : LocalDateTime.now());
@@ -68,27 +78,44 @@ public class RentalService {
     }
 
     public List<RentalDto> getAllRentals() {
-        return rentalRepository.findAll().stream()
-                .map(this::convertToDto)
+        return rentalRepository.findAllRows().stream()
+                .map(RentalRow::toDto)
                 .collect(Collectors.toList());
     }
 
-    public List<RentalDto> getRentalsByUserId(Long userId) {
-        return rentalRepository.findByUserId(userId).stream()
-                .map(this::convertToDto)
+    public CursorPage<RentalDto> getRentalsPage(Long after, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        List<RentalRow> rows = rentalRepository.findPageAfter(CursorPage.normalizeAfter(after), PageRequest.ofSize(size + 1));
+        return CursorPage.of(rows, size, RentalRow::id, RentalRow::toDto);
+    }
+
+    /**
+     * includeArchived: arşive taşınmış eski kiralamalar da (rentals_history) listenin sonuna eklenir
+     */
+    public List<RentalDto> getRentalsByUserId(Long userId, boolean includeArchived) {
+        List<RentalRow> rows = new ArrayList<>(rentalRepository.findRowsByUserId(userId));
+        if (includeArchived) {
+            rows.addAll(rentalHistoryRepository.findRowsByUserId(userId));
+        }
+        return rows.stream()
+                .map(RentalRow::toDto)
                 .collect(Collectors.toList());
     }
 
-    public List<RentalDto> getRentalsByStatus(String status) {
+    public List<RentalDto> getRentalsByStatus(String status, boolean includeArchived) {
         Rental.RentalStatus rentalStatus = Rental.RentalStatus.valueOf(status);
-        return rentalRepository.findByStatus(rentalStatus).stream()
-                .map(this::convertToDto)
+        List<RentalRow> rows = new ArrayList<>(rentalRepository.findRowsByStatus(rentalStatus));
+        if (includeArchived) {
+            rows.addAll(rentalHistoryRepository.findRowsByStatus(rentalStatus));
+        }
+        return rows.stream()
+                .map(RentalRow::toDto)
                 .collect(Collectors.toList());
     }
 
     public List<RentalDto> getOverdueRentals() {
-        return rentalRepository.findOverdueRentals().stream()
-                .map(this::convertToDto)
+        return rentalRepository.findOverdueRows().stream()
+                .map(RentalRow::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -110,11 +137,14 @@ public class RentalService {
         Car car = rental.getReservation().getCar();
         car.setStatus(Car.CarStatus.AVAILABLE);
         carRepository.save(car);
+        catalogIndex.onCarStatusChanged(car.getId(), car.getStatus().name());
 
         // Update reservation status to COMPLETED
         Reservation reservation = rental.getReservation();
         reservation.setStatus(Reservation.ReservationStatus.COMPLETED);
         reservationRepository.save(reservation);
+        reservationSlots.release(reservation.getId());
+        availabilityIndex.onReservationChanged(reservation);
 
         Rental updatedRental = rentalRepository.save(rental);
         return convertToDto(updatedRental);
@@ -128,7 +158,7 @@ public class RentalService {
         rentalRepository.deleteById(id);
     }
 
-    private RentalDto convertToDto(Rental rental) {
+    RentalDto convertToDto(Rental rental) {
         RentalDto dto = new RentalDto();
         dto.setId(rental.getId());
         dto.setPickupDate(rental.getPickupDate());
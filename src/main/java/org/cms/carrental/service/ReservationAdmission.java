@@ -0,0 +1,50 @@
+package org.cms.carrental.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Rezervasyon kabulü için araç bazlı kilit şeritleme (lock striping)
+ *
+ * Aynı aracın rezervasyonları aynı kilit üzerinden sırayla işlenir (çakışma kontrolü + kayıt + commit),
+ * farklı araçlar çoğunlukla farklı şeritlere düştüğü için paralel çalışır.
+ * Bu sadece tek instance içi koruma; instance'lar arası koruma veritabanı kilidiyle sağlanır.
+ */
+@Component
+public class ReservationAdmission {
+
+    private final Lock[] stripes;
+    private final int shift;
+
+    public ReservationAdmission(@Value("${app.reservation.lock-stripes:64}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(2, stripeCount));
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.shift = 64 - Integer.numberOfTrailingZeros(size);
+    }
+
+    /**
+     * action'ı aracın şerit kilidi altında çalıştırır. action kendi transaction'ını
+     * commit etmeli ki kilit bırakıldığında sonuç diğer isteklere görünür olsun.
+     */
+    public <T> T admit(Long carId, Supplier<T> action) {
+        Lock lock = stripes[stripeIndex(carId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int stripeIndex(Long carId) {
+        // Fibonacci hashing: ardışık id'ler şeritlere dengeli dağılır
+        return (int) ((carId * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+}
@@ -0,0 +1,145 @@
+package org.cms.carrental.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sıcak/soğuk ayrımı - bitiş tarihi horizon'dan eski COMPLETED/CANCELLED rezervasyonları ve kiralamalarını
+ * reservations_history / rentals_history tablolarına taşır.
+ *
+ * Satırlar id sırasıyla batch-size'lık parçalar halinde işlenir; her parça (kopyala + sil) tek transaction'dır.
+ * İlerleme verinin kendisidir (taşınan satır sıcak tabloda kalmaz): yarıda kesilen çalıştırma
+ * sadece son parçayı geri alır, sonraki çalıştırma kaldığı yerden devam eder.
+ * Aktif rezervasyonlar taşınmaz; müsaitlik indeksi ve gün slotları etkilenmez.
+ */
+@Component
+@Slf4j
+public class ReservationArchiver {
+
+    private static final String FINISHED = "status IN ('COMPLETED', 'CANCELLED') AND end_date < ?";
+
+    private static final String RESERVATION_COLUMNS =
+            "id, start_date, end_date, total_price, status, notes, created_at, updated_at, user_id, car_id";
+    private static final String RENTAL_COLUMNS =
+            "id, pickup_date, return_date, actual_return_date, initial_mileage, final_mileage, "
+                    + "additional_charges, status, notes, created_at, updated_at, reservation_id";
+
+    // Parçadaki rezervasyonlar: (after, last] aralığında ve hâlâ taşınabilir olanlar
+    private static final String CHUNK = "SELECT id FROM reservations WHERE " + FINISHED + " AND id > ? AND id <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final int batchSize;
+    private final Counter archivedReservations;
+    private final Counter archivedRentals;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ReservationArchiver(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.archive.enabled:true}") boolean enabled,
+                               @Value("${app.archive.horizon:730d}") Duration horizon,
+                               @Value("${app.archive.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.archivedReservations = Counter.builder("archive.reservations").register(meterRegistry);
+        this.archivedRentals = Counter.builder("archive.rentals").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveExpired() {
+        if (enabled) {
+            archive(LocalDate.now().minusDays(horizon.toDays()));
+        }
+    }
+
+    /**
+     * Bitiş tarihi cutoff'tan önce olan bitmiş rezervasyonları arşivle; taşınan rezervasyon sayısını döner
+     */
+    public long archive(LocalDate cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Archive run already in progress, skipping");
+            return 0;
+        }
+        try {
+            long started = System.nanoTime();
+            long reservations = 0;
+            long rentals = 0;
+            long after = 0;
+            while (true) {
+                long from = after;
+                long[] moved = transactionTemplate.execute(status -> archiveChunk(cutoff, from));
+                if (moved == null) {
+                    break;
+                }
+                after = moved[0];
+                reservations += moved[1];
+                rentals += moved[2];
+            }
+            archivedReservations.increment(reservations);
+            archivedRentals.increment(rentals);
+            log.info("Archived {} reservations and {} rentals ending before {} in {} ms",
+                    reservations, rentals, cutoff, (System.nanoTime() - started) / 1_000_000);
+            return reservations;
+        } catch (RuntimeException e) {
+            // Başarısız parça geri alındı, önceki parçalar arşivde; sonraki çalıştırma devam eder
+            log.warn("Archive run stopped: {}", e.getMessage());
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * after'dan sonraki ilk batch-size rezervasyonu ve kiralamalarını taşı.
+     * Sonuç: [parçanın son id'si, taşınan rezervasyon, taşınan kiralama]; taşınacak satır yoksa null
+     */
+    private long[] archiveChunk(LocalDate cutoff, long after) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM reservations WHERE " + FINISHED + " AND id > ? ORDER BY id LIMIT ?",
+                Long.class, cutoff, after, batchSize);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        long last = ids.get(ids.size() - 1);
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbcTemplate.update("INSERT INTO reservations_history (" + RESERVATION_COLUMNS + ", archive_month, archived_at) "
+                        + "SELECT " + RESERVATION_COLUMNS + ", "
+                        + "EXTRACT(YEAR FROM end_date) * 100 + EXTRACT(MONTH FROM end_date), ? "
+                        + "FROM reservations WHERE " + FINISHED + " AND id > ? AND id <= ?",
+                now, cutoff, after, last);
+        int rentals = jdbcTemplate.update("INSERT INTO rentals_history (" + RENTAL_COLUMNS + ", archive_month, archived_at) "
+                        + "SELECT " + prefixed("t.", RENTAL_COLUMNS) + ", h.archive_month, ? "
+                        + "FROM rentals t JOIN reservations_history h ON h.id = t.reservation_id "
+                        + "WHERE t.reservation_id IN (" + CHUNK + ")",
+                now, cutoff, after, last);
+
+        jdbcTemplate.update("DELETE FROM reservation_days WHERE reservation_id IN (" + CHUNK + ")", cutoff, after, last);
+        jdbcTemplate.update("DELETE FROM rentals WHERE reservation_id IN (" + CHUNK + ")", cutoff, after, last);
+        int reservations = jdbcTemplate.update("DELETE FROM reservations WHERE " + FINISHED + " AND id > ? AND id <= ?",
+                cutoff, after, last);
+        return new long[]{last, reservations, rentals};
+    }
+
+    private static String prefixed(String alias, String columns) {
+        return alias + columns.replace(", ", ", " + alias);
+    }
+}
@@ -1,19 +1,27 @@
 package org.cms.carrental.service;
 
 import lombok.RequiredArgsConstructor;
+import org.cms.carrental.config.RecentWriters;
+import org.cms.carrental.dto.CursorPage;
 import org.cms.carrental.dto.ReservationDto;
 import org.cms.carrental.entity.Car;
 import org.cms.carrental.entity.Reservation;
 import org.cms.carrental.entity.User;
 import org.cms.carrental.repository.CarRepository;
+import org.cms.carrental.repository.ReservationHistoryRepository;
 import org.cms.carrental.repository.ReservationRepository;
 import org.cms.carrental.repository.UserRepository;
+import org.cms.carrental.repository.projection.ReservationRow;
+import org.cms.carrental.security.AuthenticatedUser;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,21 +30,39 @@ import java.util.stream.Collectors;
 public class ReservationService {
 
     private final ReservationRepository reservationRepository;
+    private final ReservationHistoryRepository reservationHistoryRepository;
     private final UserRepository userRepository;
     private final CarRepository carRepository;
+    private final CarAvailabilityIndex availabilityIndex;
+    private final ReservationAdmission reservationAdmission;
+    private final ReservationSlots reservationSlots;
+    private final TransactionTemplate transactionTemplate;
+    private final RecentWriters recentWriters;
 
     /**
      * Mevcut oturum açmış kullanıcıyı döndürür
      */
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            // Token'daki id ile referans - ilişki kurmak için sorgu gerekmez
+            return userRepository.getReferenceById(principal.id());
+        }
         String email = authentication.getName();
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Current user not found"));
     }
 
-    @Transactional
+    /**
+     * Rezervasyon oluştur - aynı araç için kabul sırayla yapılır.
+     * Kilit transaction'ı kapsar: çakışma kontrolü, kayıt ve commit tek kritik bölgededir.
+     */
     public ReservationDto createReservation(ReservationDto reservationDto) {
+        return reservationAdmission.admit(reservationDto.getCarId(),
+                () -> transactionTemplate.execute(status -> admitReservation(reservationDto)));
+    }
+
+    private ReservationDto admitReservation(ReservationDto reservationDto) {
         // Mevcut kullanıcıyı al (eğer userId belirtilmemişse)
         User user;
         if (reservationDto.getUserId() != null) {
@@ -46,7 +72,8 @@ public class ReservationService {
             user = getCurrentUser();
         }
 
-        Car car = carRepository.findById(reservationDto.getCarId())
+        // Araç satırı kilitlenir: diğer instance'lardaki aynı araç istekleri commit'e kadar bekler
+        Car car = carRepository.findByIdForUpdate(reservationDto.getCarId())
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + reservationDto.getCarId()));
 
         // Check if car is available
@@ -54,15 +81,18 @@ public class ReservationService {
             throw new RuntimeException("Car is not available");
         }
 
-        // Check for conflicting reservations
-        List<Reservation> conflicts = reservationRepository.findConflictingReservations(
-                car.getId(),
-                reservationDto.getStartDate(),
-                reservationDto.getEndDate()
-        );
+        // Check for conflicting reservations - asıl kontrol kayıttan sonra slot insert'idir.
+        // Eski rezervasyonların slotları henüz yazılmadıysa aralık sorgusu da yapılır.
+        if (!reservationSlots.isBackfilled()) {
+            List<Reservation> conflicts = reservationRepository.findConflictingReservations(
+                    car.getId(),
+                    reservationDto.getStartDate(),
+                    reservationDto.getEndDate()
+            );
 
-        if (!conflicts.isEmpty()) {
-            throw new RuntimeException("Car is already reserved for the selected dates");
+            if (!conflicts.isEmpty()) {
+                throw new RuntimeException("Car is already reserved for the selected dates");
+            }
         }
 
         // Calculate total price
@@ -82,6 +112,9 @@ public class ReservationService {
         reservation.setCar(car);
 
         Reservation savedReservation = reservationRepository.save(reservation);
+        reservationSlots.claim(savedReservation);
+        availabilityIndex.onReservationChanged(savedReservation);
+        markRecentWrite(savedReservation);
         return convertToDto(savedReservation);
     }
 
@@ -94,15 +127,30 @@ public class ReservationService {
 
     @Transactional(readOnly = true)
     public List<ReservationDto> getAllReservations() {
-        return reservationRepository.findAll().stream()
-                .map(this::convertToDto)
+        return reservationRepository.findAllRows().stream()
+                .map(ReservationRow::toDto)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public List<ReservationDto> getReservationsByUserId(Long userId) {
-        return reservationRepository.findByUserId(userId).stream()
-                .map(this::convertToDto)
+    public CursorPage<ReservationDto> getReservationsPage(Long after, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        List<ReservationRow> rows = reservationRepository.findPageAfter(
+                CursorPage.normalizeAfter(after), PageRequest.ofSize(size + 1));
+        return CursorPage.of(rows, size, ReservationRow::id, ReservationRow::toDto);
+    }
+
+    /**
+     * includeArchived: arşive taşınmış eski rezervasyonlar da (reservations_history) listenin sonuna eklenir
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationDto> getReservationsByUserId(Long userId, boolean includeArchived) {
+        List<ReservationRow> rows = new ArrayList<>(reservationRepository.findRowsByUserId(userId));
+        if (includeArchived) {
+            rows.addAll(reservationHistoryRepository.findRowsByUserId(userId));
+        }
+        return rows.stream()
+                .map(ReservationRow::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -110,25 +158,31 @@ public class ReservationService {
      * Mevcut oturum açmış kullanıcının rezervasyonlarını döndürür
      */
     @Transactional(readOnly = true)
-    public List<ReservationDto> getMyReservations() {
+    public List<ReservationDto> getMyReservations(boolean includeArchived) {
         User currentUser = getCurrentUser();
-        return reservationRepository.findByUserId(currentUser.getId()).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return getReservationsByUserId(currentUser.getId(), includeArchived);
     }
 
     @Transactional(readOnly = true)
-    public List<ReservationDto> getReservationsByCarId(Long carId) {
-        return reservationRepository.findByCarId(carId).stream()
-                .map(this::convertToDto)
+    public List<ReservationDto> getReservationsByCarId(Long carId, boolean includeArchived) {
+        List<ReservationRow> rows = new ArrayList<>(reservationRepository.findRowsByCarId(carId));
+        if (includeArchived) {
+            rows.addAll(reservationHistoryRepository.findRowsByCarId(carId));
+        }
+        return rows.stream()
+                .map(ReservationRow::toDto)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public List<ReservationDto> getReservationsByStatus(String status) {
+    public List<ReservationDto> getReservationsByStatus(String status, boolean includeArchived) {
         Reservation.ReservationStatus reservationStatus = Reservation.ReservationStatus.valueOf(status);
-        return reservationRepository.findByStatus(reservationStatus).stream()
-                .map(this::convertToDto)
+        List<ReservationRow> rows = new ArrayList<>(reservationRepository.findRowsByStatus(reservationStatus));
+        if (includeArchived) {
+            rows.addAll(reservationHistoryRepository.findRowsByStatus(reservationStatus));
+        }
+        return rows.stream()
+                .map(ReservationRow::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -137,8 +191,16 @@ public class ReservationService {
         Reservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Reservation not found with id: " + id));
 
+        // İptal edilmiş/tamamlanmış rezervasyon yeniden aktifleşiyorsa günleri tekrar alınmalı
+        boolean released = reservation.getStatus() == Reservation.ReservationStatus.CANCELLED
+                || reservation.getStatus() == Reservation.ReservationStatus.COMPLETED;
         reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        if (released) {
+            reservationSlots.claim(reservation);
+        }
         Reservation updatedReservation = reservationRepository.save(reservation);
+        availabilityIndex.onReservationChanged(updatedReservation);
+        markRecentWrite(updatedReservation);
         return convertToDto(updatedReservation);
     }
 
@@ -149,18 +211,34 @@ public class ReservationService {
 
         reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
         Reservation updatedReservation = reservationRepository.save(reservation);
+        reservationSlots.release(id);
+        availabilityIndex.onReservationChanged(updatedReservation);
+        markRecentWrite(updatedReservation);
         return convertToDto(updatedReservation);
     }
 
     @Transactional
     public void deleteReservation(Long id) {
-        if (!reservationRepository.existsById(id)) {
-            throw new RuntimeException("Reservation not found with id: " + id);
-        }
-        reservationRepository.deleteById(id);
+        Reservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Reservation not found with id: " + id));
+        reservationRepository.delete(reservation);
+        reservationSlots.release(id);
+        availabilityIndex.onReservationDeleted(reservation);
+    }
+
+    /**
+     * Rezervasyon sahibi ve işlemi yapan kullanıcı bir süre replikadan değil primary'den okur
+     */
+    private void markRecentWrite(Reservation reservation) {
+        Long ownerId = reservation.getUser().getId();
+        Long actorId = RecentWriters.currentUserId();
+        AfterCommit.run(() -> {
+            recentWriters.markWrite(ownerId);
+            recentWriters.markWrite(actorId);
+        });
     }
 
-    private ReservationDto convertToDto(Reservation reservation) {
+    ReservationDto convertToDto(Reservation reservation) {
         ReservationDto dto = new ReservationDto();
         dto.setId(reservation.getId());
         dto.setStartDate(reservation.getStartDate());
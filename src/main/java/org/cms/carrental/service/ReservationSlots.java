@@ -0,0 +1,111 @@
+package org.cms.carrental.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.repository.ReservationRepository;
+import org.cms.carrental.repository.projection.ReservationWindow;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * reservation_days slot tablosu - aktif rezervasyonun her günü (uçlar dahil) bir satır.
+ *
+ * Çakışma kontrolü aralık sorgusu yerine (car_id, day) birincil anahtarına yapılan insert'tir;
+ * aynı gün ikinci kez alınmak istenirse veritabanı reddeder (instance sayısından bağımsız).
+ * Slotlar iptal, tamamlanma ve silmede bırakılır. JDBC çağrıları çağıranın transaction'ına katılır.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationSlots {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO reservation_days (car_id, day, reservation_id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean backfilled;
+
+    /**
+     * Eski rezervasyonların slotları yazılana kadar çağıran ayrıca aralık sorgusu yapmalı
+     */
+    public boolean isBackfilled() {
+        return backfilled;
+    }
+
+    /**
+     * Rezervasyonun günlerini al; günlerden biri doluysa rezervasyon reddedilir
+     */
+    public void claim(Reservation reservation) {
+        claim(reservation.getId(), reservation.getCar().getId(), reservation.getStartDate(), reservation.getEndDate());
+    }
+
+    public void release(Long reservationId) {
+        jdbcTemplate.update("DELETE FROM reservation_days WHERE reservation_id = ?", reservationId);
+    }
+
+    public void releaseCar(Long carId) {
+        jdbcTemplate.update("DELETE FROM reservation_days WHERE car_id = ?", carId);
+    }
+
+    public void releaseUser(Long userId) {
+        jdbcTemplate.update("DELETE FROM reservation_days WHERE reservation_id IN "
+                + "(SELECT id FROM reservations WHERE user_id = ?)", userId);
+    }
+
+    /**
+     * Slot tablosundan önce oluşturulmuş aktif rezervasyonları tabloya yazar.
+     * Zaten slotu olan rezervasyonlar atlanır; tekrar çalıştırılması güvenlidir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Set<Long> claimed = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT reservation_id FROM reservation_days", Long.class));
+
+        int filled = 0;
+        int failed = 0;
+        for (ReservationWindow window : reservationRepository.findActiveWindows()) {
+            if (claimed.contains(window.id())) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        claim(window.id(), window.carId(), window.startDate(), window.endDate()));
+                filled++;
+            } catch (RuntimeException e) {
+                // Eski veride çift rezervasyon varsa ilk gelen slotu alır, diğeri raporlanır
+                failed++;
+                log.warn("Reservation {} could not be backfilled: {}", window.id(), e.getMessage());
+            }
+        }
+
+        backfilled = true;
+        log.info("Reservation slots backfilled: {} reservations written, {} skipped", filled, failed);
+    }
+
+    private void claim(Long reservationId, Long carId, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            rows.add(new Object[]{carId, Date.valueOf(day), reservationId});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException("Car is already reserved for the selected dates");
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package org.cms.carrental.service;
 
 import lombok.RequiredArgsConstructor;
+import org.cms.carrental.dto.CursorPage;
 import org.cms.carrental.dto.RegisterRequest;
 import org.cms.carrental.dto.UpdateUserRequest;
 import org.cms.carrental.dto.UserDto;
 import org.cms.carrental.entity.User;
+import org.cms.carrental.repository.RentalHistoryRepository;
+import org.cms.carrental.repository.ReservationHistoryRepository;
 import org.cms.carrental.repository.UserRepository;
+import org.cms.carrental.repository.projection.UserCredentials;
+import org.cms.carrental.security.PrincipalCache;
+import org.cms.carrental.security.TokenEpochRegistry;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,7 +25,13 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ReservationHistoryRepository reservationHistoryRepository;
+    private final RentalHistoryRepository rentalHistoryRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CarAvailabilityIndex availabilityIndex;
+    private final ReservationSlots reservationSlots;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final PrincipalCache principalCache;
 
     @Transactional
     public UserDto registerUser(RegisterRequest request) {
@@ -58,6 +71,8 @@ public class UserService {
         user.setRole(User.Role.ADMIN);
 
         User savedUser = userRepository.save(user);
+        String email = savedUser.getEmail();
+        AfterCommit.run(() -> principalCache.invalidate(email));
         return convertToDto(savedUser);
     }
 
@@ -79,6 +94,12 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<UserDto> getUsersPage(Long after, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        List<User> rows = userRepository.findPageAfter(CursorPage.normalizeAfter(after), PageRequest.ofSize(size + 1));
+        return CursorPage.of(rows, size, User::getId, this::convertToDto);
+    }
+
     @Transactional
     public UserDto updateUser(Long id, UpdateUserRequest request) {
         User user = userRepository.findById(id)
@@ -97,24 +118,44 @@ public class UserService {
             user.setDriverLicense(request.getDriverLicense());
         }
 
-        // Şifre değişikliği opsiyonel
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+        // Şifre değişikliği opsiyonel - değişirse mevcut token'lar iptal edilir
+        boolean passwordChanged = request.getPassword() != null && !request.getPassword().isEmpty();
+        if (passwordChanged) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setTokenEpoch(user.getTokenEpoch() + 1);
         }
 
         User updatedUser = userRepository.save(user);
+        String email = updatedUser.getEmail();
+        int epoch = updatedUser.getTokenEpoch();
+        AfterCommit.run(() -> {
+            principalCache.invalidate(email);
+            if (passwordChanged) {
+                tokenEpochRegistry.update(id, epoch);
+            }
+        });
         return convertToDto(updatedUser);
     }
 
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
+        String email = userRepository.findById(id)
+                .map(User::getEmail)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        // Cascade ile silinecek aktif rezervasyonları müsaitlik indeksinden çıkar
+        availabilityIndex.onUserDeleted(id);
+        reservationSlots.releaseUser(id);
+        // Arşivdeki rezervasyon ve kiralamaları (FK yok, cascade silmez)
+        rentalHistoryRepository.deleteByUserId(id);
+        reservationHistoryRepository.deleteByUserId(id);
         userRepository.deleteById(id);
+        AfterCommit.run(() -> {
+            tokenEpochRegistry.revoke(id);
+            principalCache.invalidate(email);
+        });
     }
 
-    private UserDto convertToDto(User user) {
+    UserDto convertToDto(User user) {
         UserDto dto = new UserDto();
         dto.setId(user.getId());
         dto.setName(user.getName());
@@ -126,5 +167,17 @@ public class UserService {
         dto.setCreatedAt(user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
         return dto;
     }
-}
 
+    UserDto convertToDto(UserCredentials user) {
+        UserDto dto = new UserDto();
+        dto.setId(user.id());
+        dto.setName(user.name());
+        dto.setEmail(user.email());
+        dto.setPhone(user.phone());
+        dto.setAddress(user.address());
+        dto.setDriverLicense(user.driverLicense());
+        dto.setRole(user.role().name());
+        dto.setCreatedAt(user.createdAt() != null ? user.createdAt().toString() : null);
+        return dto;
+    }
+}
@@ -0,0 +1,82 @@
+-- Başlangıç şeması - Flyway'den önceki ddl-auto=update döneminde Hibernate'in oluşturduğu tablolar
+-- (IDENTITY id'ler, token_epoch yok). Mevcut veritabanlarında bu sürüm baseline kabul edilir
+-- (spring.flyway.baseline-on-migrate); sonraki değişiklikler V2 ve sonrasındadır.
+-- Hibernate kısıt adlarını rastgele üretmişti; mevcut veritabanlarında adlar farklıdır.
+
+CREATE TABLE users (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    name           VARCHAR(255) NOT NULL,
+    email          VARCHAR(255) NOT NULL,
+    password       VARCHAR(255) NOT NULL,
+    phone          VARCHAR(255) NOT NULL,
+    address        VARCHAR(255) NOT NULL,
+    driver_license VARCHAR(255),
+    role           ENUM ('USER','ADMIN') NOT NULL,
+    created_at     DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE categories (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE cars (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    brand             VARCHAR(255) NOT NULL,
+    model             VARCHAR(255) NOT NULL,
+    year              INT          NOT NULL,
+    plate             VARCHAR(255) NOT NULL,
+    description       VARCHAR(500),
+    daily_price       DOUBLE       NOT NULL,
+    status            ENUM ('AVAILABLE','RENTED','MAINTENANCE','UNAVAILABLE') NOT NULL,
+    image_url         VARCHAR(255),
+    fuel_type         VARCHAR(255),
+    transmission_type VARCHAR(255),
+    seat_count        INT,
+    created_at        DATETIME(6)  NOT NULL,
+    updated_at        DATETIME(6),
+    category_id       BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_cars_plate UNIQUE (plate),
+    CONSTRAINT fk_cars_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE TABLE reservations (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    start_date  DATE        NOT NULL,
+    end_date    DATE        NOT NULL,
+    total_price DOUBLE      NOT NULL,
+    status      ENUM ('PENDING','CONFIRMED','CANCELLED','COMPLETED') NOT NULL,
+    notes       VARCHAR(500),
+    created_at  DATETIME(6) NOT NULL,
+    updated_at  DATETIME(6),
+    user_id     BIGINT      NOT NULL,
+    car_id      BIGINT      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reservations_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_reservations_car FOREIGN KEY (car_id) REFERENCES cars (id)
+);
+
+CREATE TABLE rentals (
+    id                 BIGINT      NOT NULL AUTO_INCREMENT,
+    pickup_date        DATETIME(6) NOT NULL,
+    return_date        DATETIME(6),
+    actual_return_date DATETIME(6),
+    initial_mileage    INT,
+    final_mileage      INT,
+    additional_charges DOUBLE,
+    status             ENUM ('PICKED_UP','RETURNED','OVERDUE') NOT NULL,
+    notes              VARCHAR(500),
+    created_at         DATETIME(6) NOT NULL,
+    updated_at         DATETIME(6),
+    reservation_id     BIGINT      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_rentals_reservation UNIQUE (reservation_id),
+    CONSTRAINT fk_rentals_reservation FOREIGN KEY (reservation_id) REFERENCES reservations (id)
+);
@@ -0,0 +1,8 @@
+-- Pooled tablo üreteci (JDBC batch insert için IDENTITY yerine) - gen_name = tablo adı.
+-- Satırlar IdGeneratorSeeder tarafından mevcut verinin MAX(id)'sinin üzerinden başlatılır.
+
+CREATE TABLE id_generators (
+    gen_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (gen_name)
+);
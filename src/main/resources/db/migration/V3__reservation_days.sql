@@ -0,0 +1,11 @@
+-- Araç başına dolu günler - (car_id, day) birincil anahtarı çift rezervasyonu engeller.
+-- Mevcut aktif rezervasyonların slotları açılışta ReservationSlots.backfill ile yazılır.
+
+CREATE TABLE reservation_days (
+    car_id         BIGINT NOT NULL,
+    day            DATE   NOT NULL,
+    reservation_id BIGINT NOT NULL,
+    PRIMARY KEY (car_id, day)
+);
+
+CREATE INDEX idx_reservation_days_reservation ON reservation_days (reservation_id);
@@ -0,0 +1,9 @@
+-- Base birimi başına son döviz kuru snapshot'ı (ExchangeRateSnapshotStore)
+
+CREATE TABLE exchange_rate_snapshots (
+    base_currency VARCHAR(3)      NOT NULL,
+    as_of         TIMESTAMP(6)    NOT NULL,
+    codes         VARCHAR(2048)   NOT NULL,
+    rates         VARBINARY(4096) NOT NULL,
+    PRIMARY KEY (base_currency)
+);
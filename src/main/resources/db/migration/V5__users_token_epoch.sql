@@ -0,0 +1,4 @@
+-- Kullanıcı başına token epoch'u - şifre değişince artar, eski JWT'ler geçersiz olur.
+-- Mevcut kullanıcılar 0'dan başlar (önceden verilmiş token'lar epoch claim'i taşımaz, yeniden login gerekir).
+
+ALTER TABLE users ADD COLUMN token_epoch INT NOT NULL DEFAULT 0;
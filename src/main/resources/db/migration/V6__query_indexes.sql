@@ -0,0 +1,17 @@
+-- Sık çalışan sorgular için bileşik indeksler
+
+-- Çakışma kontrolü / müsait araç alt sorgusu: car_id + status eşitliği, tarih aralığı
+CREATE INDEX idx_reservations_car_status_dates ON reservations (car_id, status, start_date, end_date);
+
+-- Kullanıcının rezervasyonları (created_at DESC sıralı)
+CREATE INDEX idx_reservations_user_created ON reservations (user_id, created_at);
+
+-- Aktif rezervasyon pencereleri (müsaitlik indeksi yüklemesi), durum listeleri ve
+-- arşivlenecek satırların taraması (status + end_date)
+CREATE INDEX idx_reservations_status_end ON reservations (status, end_date);
+
+-- Gecikmiş kiralamalar: status = 'PICKED_UP' AND return_date < now
+CREATE INDEX idx_rentals_status_return ON rentals (status, return_date);
+
+-- Durum / kategori filtreli araç listeleri
+CREATE INDEX idx_cars_status_category ON cars (status, category_id);
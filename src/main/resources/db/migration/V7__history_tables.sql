@@ -0,0 +1,44 @@
+-- Soğuk veri: horizon'dan eski COMPLETED/CANCELLED rezervasyonlar ve kiralamaları (ReservationArchiver)
+-- Kolonlar sıcak tablolarla aynı; FK yok (kullanıcı/araç silinince arşiv servis tarafından temizlenir).
+-- archive_month = bitiş tarihinin yyyyMM'i; bir ay tek aralık sorgusuyla dışa aktarılır/silinir.
+
+CREATE TABLE reservations_history (
+    id            BIGINT      NOT NULL,
+    start_date    DATE        NOT NULL,
+    end_date      DATE        NOT NULL,
+    total_price   DOUBLE      NOT NULL,
+    status        ENUM ('PENDING','CONFIRMED','CANCELLED','COMPLETED') NOT NULL,
+    notes         VARCHAR(500),
+    created_at    DATETIME(6) NOT NULL,
+    updated_at    DATETIME(6),
+    user_id       BIGINT      NOT NULL,
+    car_id        BIGINT      NOT NULL,
+    archive_month INT         NOT NULL,
+    archived_at   DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_reservations_history_user ON reservations_history (user_id);
+CREATE INDEX idx_reservations_history_car ON reservations_history (car_id);
+CREATE INDEX idx_reservations_history_month ON reservations_history (archive_month);
+
+CREATE TABLE rentals_history (
+    id                 BIGINT      NOT NULL,
+    pickup_date        DATETIME(6) NOT NULL,
+    return_date        DATETIME(6),
+    actual_return_date DATETIME(6),
+    initial_mileage    INT,
+    final_mileage      INT,
+    additional_charges DOUBLE,
+    status             ENUM ('PICKED_UP','RETURNED','OVERDUE') NOT NULL,
+    notes              VARCHAR(500),
+    created_at         DATETIME(6) NOT NULL,
+    updated_at         DATETIME(6),
+    reservation_id     BIGINT      NOT NULL,
+    archive_month      INT         NOT NULL,
+    archived_at        DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_rentals_history_reservation ON rentals_history (reservation_id);
+CREATE INDEX idx_rentals_history_month ON rentals_history (archive_month);
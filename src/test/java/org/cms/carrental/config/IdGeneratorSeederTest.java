@@ -0,0 +1,63 @@
+package org.cms.carrental.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idgen;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class IdGeneratorSeederTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private IdGeneratorSeeder seeder;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS id_generators");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS cars");
+        jdbcTemplate.execute("CREATE TABLE id_generators (gen_name VARCHAR(255) PRIMARY KEY, next_val BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE cars (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.update("INSERT INTO cars (id) VALUES (7), (120)");
+        seeder = new IdGeneratorSeeder(jdbcTemplate);
+    }
+
+    @Test
+    void missingGeneratorStartsAboveExistingIds() {
+        seeder.seed("cars");
+
+        assertThat(nextVal()).isEqualTo(120 + 50 + 1);
+        // Tekrar çalıştırmak değeri değiştirmez
+        seeder.seed("cars");
+        assertThat(nextVal()).isEqualTo(171);
+    }
+
+    @Test
+    void generatorIsOnlyMovedForward() {
+        jdbcTemplate.update("INSERT INTO id_generators (gen_name, next_val) VALUES ('cars', 100)");
+        seeder.seed("cars");
+        assertThat(nextVal()).isEqualTo(171);
+
+        // Başka bir instance daha ileri almış: geri çekilmez
+        jdbcTemplate.update("UPDATE id_generators SET next_val = 500 WHERE gen_name = 'cars'");
+        seeder.seed("cars");
+        assertThat(nextVal()).isEqualTo(500);
+    }
+
+    private long nextVal() {
+        Long value = jdbcTemplate.queryForObject("SELECT next_val FROM id_generators WHERE gen_name = 'cars'", Long.class);
+        return value != null ? value : 0;
+    }
+}
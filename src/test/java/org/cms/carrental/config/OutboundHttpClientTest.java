@@ -0,0 +1,124 @@
+package org.cms.carrental.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cms.carrental.service.ExchangeRateApiProvider;
+import org.cms.carrental.service.RateSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dış HTTP istemcisi - yerel stub HTTP sunucusuna karşı
+ */
+class OutboundHttpClientTest {
+
+    private static final String RATES_JSON = "{\"base\":\"USD\",\"rates\":{\"USD\":1,\"TRY\":32.5,\"EUR\":0.92}}";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpClient httpClient;
+    private RestTemplate restTemplate;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/v4/latest/", exchange -> respond(exchange, 0));
+        server.createContext("/slow", exchange -> respond(exchange, 200));
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        RestTemplateConfig config = new RestTemplateConfig();
+        httpClient = config.outboundHttpClient(Duration.ofSeconds(2));
+        OutboundHttpInterceptor interceptor = new OutboundHttpInterceptor(registry, 2, Duration.ofSeconds(5));
+        restTemplate = config.restTemplate(httpClient, interceptor, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        httpClient.close();
+    }
+
+    @Test
+    void sequentialCallsReuseOneConnectionAndRecordLatency() {
+        ExchangeRateApiProvider provider = new ExchangeRateApiProvider(restTemplate, baseUrl + "/v4/latest/");
+
+        for (int i = 0; i < 3; i++) {
+            RateSnapshot snapshot = provider.fetch("USD");
+            assertThat(snapshot.rate("TRY")).isEqualTo(32.5);
+            assertThat(snapshot.rate("EUR")).isEqualTo(0.92);
+        }
+
+        assertThat(clientPorts).hasSize(1);
+        assertThat(registry.get("outbound.http.headers").tag("host", "localhost").tag("outcome", "success")
+                .timer().count()).isEqualTo(3);
+        assertThat(registry.get("outbound.http.body").tag("host", "localhost").tag("outcome", "success")
+                .timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentCallsAreLimitedPerHost() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(callers.submit(() -> restTemplate.getForObject(baseUrl + "/slow", String.class)));
+        }
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).contains("TRY");
+        }
+        callers.shutdown();
+
+        assertThat(maxInFlight.get()).isBetween(1, 2);
+    }
+
+    private void respond(HttpExchange exchange, long delayMillis) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            byte[] body = RATES_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
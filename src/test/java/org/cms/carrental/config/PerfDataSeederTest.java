@@ -0,0 +1,85 @@
+package org.cms.carrental.config;
+
+import org.cms.carrental.entity.Car;
+import org.cms.carrental.entity.Rental;
+import org.cms.carrental.entity.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerfDataSeederTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+    private static final PerfDataSeeder.Settings SETTINGS =
+            new PerfDataSeeder.Settings(42, 8, 300, 100, 3000, 1500, 365, 90);
+
+    @Test
+    void sameSeedProducesSamePlan() {
+        PerfDataSeeder.Plan first = PerfDataSeeder.plan(SETTINGS, TODAY);
+        PerfDataSeeder.Plan second = PerfDataSeeder.plan(SETTINGS, TODAY);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(PerfDataSeeder.plan(new PerfDataSeeder.Settings(7, 8, 300, 100, 3000, 1500, 365, 90), TODAY))
+                .isNotEqualTo(first);
+    }
+
+    @Test
+    void planHonoursCountsAndRentalLimit() {
+        PerfDataSeeder.Plan plan = PerfDataSeeder.plan(SETTINGS, TODAY);
+
+        assertThat(plan.cars()).hasSize(100);
+        assertThat(plan.reservations()).hasSize(3000);
+        assertThat(plan.reservations().stream().filter(r -> r.rental() != null).count()).isEqualTo(1500);
+        assertThat(plan.cars().stream().map(PerfDataSeeder.CarSpec::plate).distinct().count()).isEqualTo(100);
+        assertThat(plan.reservations()).allSatisfy(r -> {
+            assertThat(r.userIndex()).isBetween(0, 299);
+            assertThat(r.endDate()).isAfter(r.startDate());
+        });
+    }
+
+    @Test
+    void reservationsOfACarDoNotOverlap() {
+        Map<Integer, List<PerfDataSeeder.ReservationSpec>> byCar = PerfDataSeeder.plan(SETTINGS, TODAY)
+                .reservations().stream()
+                .collect(Collectors.groupingBy(PerfDataSeeder.ReservationSpec::carIndex));
+
+        byCar.values().forEach(reservations -> {
+            List<PerfDataSeeder.ReservationSpec> sorted = new ArrayList<>(reservations);
+            sorted.sort(Comparator.comparing(PerfDataSeeder.ReservationSpec::startDate));
+            for (int i = 1; i < sorted.size(); i++) {
+                assertThat(sorted.get(i).startDate()).isAfter(sorted.get(i - 1).endDate());
+            }
+        });
+    }
+
+    @Test
+    void statusesFollowDates() {
+        PerfDataSeeder.Plan plan = PerfDataSeeder.plan(SETTINGS, TODAY);
+
+        assertThat(plan.reservations()).allSatisfy(r -> {
+            if (r.status() == Reservation.ReservationStatus.COMPLETED) {
+                assertThat(r.endDate()).isBefore(TODAY);
+            }
+            if (r.status() == Reservation.ReservationStatus.PENDING) {
+                assertThat(r.startDate()).isAfter(TODAY);
+            }
+            if (r.rental() != null) {
+                assertThat(r.startDate()).isBeforeOrEqualTo(TODAY);
+                assertThat(r.rental().status() == Rental.RentalStatus.RETURNED)
+                        .isEqualTo(r.status() == Reservation.ReservationStatus.COMPLETED);
+            }
+        });
+        // Şu an teslim edilmiş kiralaması olan araçlar RENTED
+        plan.reservations().stream()
+                .filter(r -> r.rental() != null && r.rental().status() == Rental.RentalStatus.PICKED_UP)
+                .forEach(r -> assertThat(plan.cars().get(r.carIndex()).status()).isEqualTo(Car.CarStatus.RENTED));
+        assertThat(plan.reservations()).anyMatch(r -> r.status() == Reservation.ReservationStatus.CANCELLED);
+    }
+}
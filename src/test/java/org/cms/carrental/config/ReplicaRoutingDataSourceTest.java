@@ -0,0 +1,150 @@
+package org.cms.carrental.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cms.carrental.entity.User;
+import org.cms.carrental.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * İki gömülü H2 veritabanı primary ve replika yerine geçer; her biri kendi adını döndürür.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private RecentWriters recentWriters;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        recentWriters = new RecentWriters(Duration.ofSeconds(10), clock::get);
+        routing = new ReplicaRoutingDataSource(primary, replica, recentWriters);
+        routing.setReplicaAvailable(true);
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTx = new TransactionTemplate(transactionManager);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        assertThat(readDatabase()).isEqualTo("replica");
+        assertThat(writeDatabase()).isEqualTo("primary");
+        // Transaction dışı erişim primary
+        assertThat(whoAmI()).isEqualTo("primary");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsUnavailable() {
+        routing.setReplicaAvailable(false);
+        assertThat(readDatabase()).isEqualTo("primary");
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimaryWithinWindow() {
+        authenticate(7L);
+        recentWriters.markWrite(7L);
+        assertThat(readDatabase()).isEqualTo("primary");
+
+        // Başka kullanıcı etkilenmez
+        authenticate(8L);
+        assertThat(readDatabase()).isEqualTo("replica");
+
+        // Pencere bitince tekrar replika
+        authenticate(7L);
+        clock.addAndGet(Duration.ofSeconds(11).toMillis());
+        assertThat(readDatabase()).isEqualTo("replica");
+    }
+
+    @Test
+    void lagMonitorDisablesReplicaWhenLaggingOrUnreachable() {
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds INT)");
+        new JdbcTemplate(replica).execute("INSERT INTO replica_lag VALUES (1)");
+
+        ReplicaDataSourceProperties properties = new ReplicaDataSourceProperties();
+        properties.setMaxLag(Duration.ofSeconds(5));
+        properties.setLagQuery("SELECT seconds FROM replica_lag");
+        properties.setLagColumn("seconds");
+        routing.setReplicaAvailable(false);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, routing, properties, new SimpleMeterRegistry());
+
+        monitor.check();
+        assertThat(routing.isReplicaAvailable()).isTrue();
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+        monitor.check();
+        assertThat(routing.isReplicaAvailable()).isFalse();
+        assertThat(readDatabase()).isEqualTo("primary");
+
+        // Replikasyon durmuş (NULL) veya sorgu hata veriyor
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = NULL");
+        monitor.check();
+        assertThat(routing.isReplicaAvailable()).isFalse();
+        new JdbcTemplate(replica).execute("DROP TABLE replica_lag");
+        monitor.check();
+        assertThat(routing.isReplicaAvailable()).isFalse();
+    }
+
+    // Read-only / yazma transaction'ında hangi veritabanına gidildi
+    private String readDatabase() {
+        return readTx.execute(status -> whoAmI());
+    }
+
+    private String writeDatabase() {
+        return writeTx.execute(status -> whoAmI());
+    }
+
+    private String whoAmI() {
+        return jdbc.queryForObject("SELECT name FROM db_role", String.class);
+    }
+
+    private void authenticate(Long userId) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "user" + userId + "@test.com", User.Role.USER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE db_role (name VARCHAR(16))");
+        jdbc.update("INSERT INTO db_role VALUES (?)", name);
+        return database;
+    }
+}
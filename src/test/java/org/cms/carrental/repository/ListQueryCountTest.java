@@ -0,0 +1,196 @@
+package org.cms.carrental.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.cms.carrental.entity.Car;
+import org.cms.carrental.entity.Category;
+import org.cms.carrental.entity.Rental;
+import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.entity.User;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.cms.carrental.support.TestFixtures.car;
+import static org.cms.carrental.support.TestFixtures.category;
+import static org.cms.carrental.support.TestFixtures.user;
+
+/**
+ * Liste sorgularının DTO dönüşümüyle birlikte satır sayısından bağımsız sabit sayıda
+ * SQL çalıştırdığını Hibernate istatistikleriyle doğrular (N+1 regresyon testi).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listqueries;MODE=MySQL;NON_KEYWORDS=DAY,YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Sorgu sayısı önbelleksiz ölçülür (önbellek SecondLevelCacheTest'te)
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ListQueryCountTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    private Statistics statistics;
+    private Category category;
+    private User user;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        category = em.persist(category());
+        user = em.persist(user());
+    }
+
+    @Test
+    void carListsRunConstantQueries() {
+        createCars(3);
+        long small = countQueries(() -> touchCars(carRepository.findAll()));
+        long smallByStatus = countQueries(() -> touchCars(carRepository.findByStatus(Car.CarStatus.AVAILABLE)));
+        long smallByCategory = countQueries(() -> touchCars(carRepository.findByCategoryId(category.getId())));
+
+        createCars(20);
+        assertThat(countQueries(() -> touchCars(carRepository.findAll()))).isEqualTo(small).isEqualTo(1);
+        assertThat(countQueries(() -> touchCars(carRepository.findByStatus(Car.CarStatus.AVAILABLE))))
+                .isEqualTo(smallByStatus).isEqualTo(1);
+        assertThat(countQueries(() -> touchCars(carRepository.findByCategoryId(category.getId()))))
+                .isEqualTo(smallByCategory).isEqualTo(1);
+        assertThat(countQueries(() -> carRepository.findAvailableRowsBetweenDates(
+                LocalDate.now(), LocalDate.now().plusDays(3)).size())).isEqualTo(1);
+    }
+
+    @Test
+    void reservationListsRunConstantQueries() {
+        createReservations(3);
+        long small = countQueries(() -> touchReservations(reservationRepository.findAll()));
+
+        createReservations(20);
+        assertThat(countQueries(() -> touchReservations(reservationRepository.findAll())))
+                .isEqualTo(small).isEqualTo(1);
+        assertThat(countQueries(() -> touchReservations(reservationRepository.findByUserId(user.getId()))))
+                .isEqualTo(1);
+        assertThat(countQueries(() -> touchReservations(
+                reservationRepository.findByStatus(Reservation.ReservationStatus.CONFIRMED)))).isEqualTo(1);
+    }
+
+    @Test
+    void rentalListsRunConstantQueries() {
+        createReservations(3);
+        long small = countQueries(() -> touchRentals(rentalRepository.findAll()));
+
+        createReservations(20);
+        assertThat(countQueries(() -> touchRentals(rentalRepository.findAll()))).isEqualTo(small).isEqualTo(1);
+        assertThat(countQueries(() -> touchRentals(rentalRepository.findByStatus(Rental.RentalStatus.PICKED_UP))))
+                .isEqualTo(1);
+        assertThat(countQueries(() -> touchRentals(rentalRepository.findByUserId(user.getId())))).isEqualTo(1);
+    }
+
+    @Test
+    void rowProjectionsRunSingleQuery() {
+        createReservations(12);
+        assertThat(countQueries(() -> carRepository.findAllRows().size())).isEqualTo(1);
+        assertThat(countQueries(() -> carRepository.findPageAfter(0L, PageRequest.ofSize(5)).size())).isEqualTo(1);
+        assertThat(countQueries(() -> reservationRepository.findRowsByUserId(user.getId()).size())).isEqualTo(1);
+        assertThat(countQueries(() -> reservationRepository.findPageAfter(0L, PageRequest.ofSize(5)).size()))
+                .isEqualTo(1);
+        assertThat(countQueries(() -> rentalRepository.findAllRows().size())).isEqualTo(1);
+
+        // Projeksiyonlar persistence context'e entity eklemez
+        em.clear();
+        reservationRepository.findAllRows();
+        assertThat(em.getEntityManager().unwrap(Session.class)
+                .getStatistics().getEntityCount()).isZero();
+    }
+
+    private long countQueries(Supplier<Integer> work) {
+        em.clear();
+        statistics.clear();
+        int rows = work.get();
+        assertThat(rows).isPositive();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Servislerdeki convertToDto metodlarının okuduğu ilişkiler
+
+    private static int touchCars(List<Car> cars) {
+        cars.forEach(car -> car.getCategory().getName());
+        return cars.size();
+    }
+
+    private static int touchReservations(List<Reservation> reservations) {
+        reservations.forEach(reservation -> {
+            reservation.getUser().getName();
+            reservation.getCar().getPlate();
+        });
+        return reservations.size();
+    }
+
+    private static int touchRentals(List<Rental> rentals) {
+        rentals.forEach(rental -> rental.getReservation().getId());
+        return rentals.size();
+    }
+
+    private List<Car> createCars(int count) {
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cars.add(em.persist(car(category, "34 TST " + (++sequence))));
+        }
+        em.flush();
+        return cars;
+    }
+
+    private void createReservations(int count) {
+        LocalDate start = LocalDate.now().plusDays(10);
+        for (Car car : createCars(count)) {
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setCar(car);
+            reservation.setStartDate(start);
+            reservation.setEndDate(start.plusDays(2));
+            reservation.setTotalPrice(3000.0);
+            reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+            em.persist(reservation);
+
+            Rental rental = new Rental();
+            rental.setReservation(reservation);
+            rental.setPickupDate(LocalDateTime.now());
+            em.persist(rental);
+            reservation.setRental(rental);
+        }
+        em.flush();
+    }
+}
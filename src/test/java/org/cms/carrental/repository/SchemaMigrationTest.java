@@ -0,0 +1,106 @@
+package org.cms.carrental.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flyway migration'ları + Hibernate validate - ddl-auto=update döneminden kalan bir veritabanı
+ * (sadece V1 şeması ve veri, flyway_schema_history yok) baseline'lanıp son sürüme taşınır;
+ * context'in açılması entity'lerin yükseltilmiş şemayla uyumlu olduğunu gösterir.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTest {
+
+    private static final String LEGACY_URL =
+            "jdbc:h2:mem:legacy-schema;MODE=MySQL;NON_KEYWORDS=DAY,YEAR;DB_CLOSE_DELAY=-1";
+    private static final String FRESH_URL =
+            "jdbc:h2:mem:fresh-schema;MODE=MySQL;NON_KEYWORDS=DAY,YEAR;DB_CLOSE_DELAY=-1";
+
+    private static boolean legacyCreated;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void legacyDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", SchemaMigrationTest::createLegacyDatabase);
+    }
+
+    @Test
+    void legacyDatabaseIsBaselinedAndUpgraded() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertThat(applied[0].getType().isBaseline()).isTrue();
+        assertThat(applied[0].getVersion().getVersion()).isEqualTo("1");
+        assertThat(Arrays.stream(applied).skip(1).map(info -> info.getVersion().getVersion()))
+                .containsExactly("2", "3", "4", "5", "6", "7");
+        assertThat(applied).allMatch(info -> info.getState() == MigrationState.SUCCESS
+                || info.getState() == MigrationState.BASELINE);
+        assertThat(flyway.info().pending()).isEmpty();
+
+        // Eski satırlar korunur, yeni kolonlar varsayılanla dolar
+        assertThat(jdbcTemplate.queryForObject("SELECT token_epoch FROM users WHERE id = 1", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void freshDatabaseEndsWithTheSameSchema() {
+        DataSource fresh = new DriverManagerDataSource(FRESH_URL, "sa", "");
+        Flyway.configure().dataSource(fresh).locations("classpath:db/migration").load().migrate();
+
+        assertThat(columns(new JdbcTemplate(fresh))).isEqualTo(columns(jdbcTemplate));
+    }
+
+    private static synchronized String createLegacyDatabase() {
+        if (!legacyCreated) {
+            DataSource legacy = new DriverManagerDataSource(LEGACY_URL, "sa", "");
+            new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql")).execute(legacy);
+            JdbcTemplate jdbc = new JdbcTemplate(legacy);
+            jdbc.update("INSERT INTO users (name, email, password, phone, address, role, created_at) "
+                    + "VALUES ('Old User', 'old@test.com', 'hash', '5550000000', 'Istanbul', 'USER', CURRENT_TIMESTAMP)");
+            jdbc.update("INSERT INTO categories (name) VALUES ('SUV')");
+            jdbc.update("INSERT INTO cars (brand, model, year, plate, daily_price, status, created_at, category_id) "
+                    + "VALUES ('Brand', 'Model', 2020, '34 OLD 1', 1000, 'AVAILABLE', CURRENT_TIMESTAMP, 1)");
+            jdbc.update("INSERT INTO reservations (start_date, end_date, total_price, status, created_at, user_id, car_id) "
+                    + "VALUES ('2024-01-01', '2024-01-03', 2000, 'COMPLETED', CURRENT_TIMESTAMP, 1, 1)");
+            legacyCreated = true;
+        }
+        return LEGACY_URL;
+    }
+
+    private static List<Map<String, Object>> columns(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT TABLE_NAME, COLUMN_NAME, DATA_TYPE, IS_NULLABLE, COLUMN_DEFAULT "
+                + "FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME <> 'flyway_schema_history' "
+                + "ORDER BY TABLE_NAME, COLUMN_NAME");
+    }
+}
@@ -0,0 +1,126 @@
+package org.cms.carrental.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.cms.carrental.entity.Car;
+import org.cms.carrental.entity.Category;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Car / Category 2. seviye önbelleği ve katalog sorgu önbelleği - her adım ayrı transaction'da
+ * (READ_WRITE bölgeleri commit sonrası güncellenir).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cache;MODE=MySQL;NON_KEYWORDS=DAY,YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Statistics statistics;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            carRepository.deleteAll();
+            categoryRepository.deleteAll();
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void carByIdIsServedFromCacheAndEvictedOnUpdate() {
+        Long carId = tx.execute(status -> {
+            Category category = categoryRepository.save(newCategory("SUV"));
+            return carRepository.save(newCar(category, "34 L2 1")).getId();
+        });
+
+        // İlk okuma veritabanından (önbelleğe yazar), ikincisi önbellekten
+        Supplier<String> load = () -> tx.execute(status ->
+                carRepository.findById(carId).orElseThrow().getCategory().getName());
+        assertThat(countStatements(load)).isLessThanOrEqualTo(2);
+        assertThat(countStatements(load)).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("cars").getHitCount()).isPositive();
+
+        tx.executeWithoutResult(status -> carRepository.findById(carId).orElseThrow().setDailyPrice(2500.0));
+        Double price = tx.execute(status -> carRepository.findById(carId).orElseThrow().getDailyPrice());
+        assertThat(price).isEqualTo(2500.0);
+    }
+
+    @Test
+    void catalogQueriesAreCachedUntilTablesChange() {
+        tx.executeWithoutResult(status -> {
+            Category category = categoryRepository.save(newCategory("Sedan"));
+            carRepository.save(newCar(category, "34 L2 2"));
+        });
+
+        assertThat(tx.execute(status -> carRepository.findAllRows()).size()).isEqualTo(1);
+        assertThat(countStatements(() -> tx.execute(status -> carRepository.findAllRows()))).isZero();
+        assertThat(countStatements(() -> tx.execute(status -> categoryRepository.findAll()).size()))
+                .isEqualTo(1);
+        assertThat(countStatements(() -> tx.execute(status -> categoryRepository.findAll()).size())).isZero();
+
+        // Yazma: cars tablosunun sorgu sonuçları geçersiz olur
+        tx.executeWithoutResult(status -> carRepository.save(
+                newCar(categoryRepository.findAll().get(0), "34 L2 3")));
+        assertThat(tx.execute(status -> carRepository.findAllRows()).size()).isEqualTo(2);
+    }
+
+    private long countStatements(Supplier<?> work) {
+        statistics.clear();
+        work.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static Category newCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return category;
+    }
+
+    private static Car newCar(Category category, String plate) {
+        Car car = new Car();
+        car.setBrand("Brand");
+        car.setModel("Model");
+        car.setYear(2024);
+        car.setPlate(plate);
+        car.setDailyPrice(1000.0);
+        car.setCategory(category);
+        return car;
+    }
+}
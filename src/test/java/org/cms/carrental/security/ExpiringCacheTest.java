@@ -0,0 +1,68 @@
+package org.cms.carrental.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void entryIsDroppedWhenItExpires() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, now::get);
+        cache.put("a", "1", 1_100);
+        // Süresi geçmiş değer hiç yazılmaz
+        cache.put("b", "2", 1_000);
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("b")).isNull();
+
+        now.set(1_100);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void putIfAbsentKeepsLiveEntryAndReplacesExpiredOne() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, now::get);
+
+        assertThat(cache.putIfAbsent("a", 1, 1_100)).isEqualTo(1);
+        assertThat(cache.putIfAbsent("a", 2, 1_500)).isEqualTo(1);
+
+        now.set(1_200);
+        assertThat(cache.putIfAbsent("a", 3, 1_500)).isEqualTo(3);
+    }
+
+    @Test
+    void fullCacheEvictsExpiredEntriesFirst() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(10, now::get);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, i, 1_050);
+        }
+        for (int i = 5; i < 10; i++) {
+            cache.put(i, i, 9_000);
+        }
+
+        now.set(1_100);
+        cache.put(10, 10, 9_000);
+
+        assertThat(cache.size()).isEqualTo(6);
+        for (int i = 5; i <= 10; i++) {
+            assertThat(cache.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void sizeNeverExceedsMaximum() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100, now::get);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i, 9_000);
+            assertThat(cache.size()).isLessThanOrEqualTo(100);
+        }
+        // Son yazılan her zaman önbellekte
+        assertThat(cache.get(999)).isEqualTo(999);
+    }
+}
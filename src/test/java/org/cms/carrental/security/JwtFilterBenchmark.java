@@ -0,0 +1,103 @@
+package org.cms.carrental.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.cms.carrental.entity.User;
+import org.cms.carrental.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * İstek başına JWT doğrulama maliyeti - önceki akış (her çağrıda anahtar yeniden kurulur,
+ * extractUsername x2 + extractExpiration ile üç parse) ile JwtAuthenticationFilter'ın tek parse + önbellek yolu.
+ *
+ * Çalıştırma: mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtFilterBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJWTTokenGenerationMustBeLongEnough";
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 10_000);
+        jwtUtil.init();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenEpochById(anyLong())).thenReturn(Optional.of(0));
+        filter = new JwtAuthenticationFilter(jwtUtil,
+                new TokenEpochRegistry(userRepository, Duration.ofMinutes(1), 10_000));
+
+        token = jwtUtil.generateToken(1L, "bench@test.com", User.Role.USER, 0);
+        request = new MockHttpServletRequest("GET", "/api/reservations/my");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    /**
+     * Önceki JwtAuthenticationFilter + JwtUtil: getSigningKey() her çağrıda, token üç kez parse edilir
+     */
+    @Benchmark
+    public boolean tripleParse() {
+        String username = legacyClaims(token).getSubject();
+        boolean valid = username.equals(legacyClaims(token).getSubject())
+                && !legacyClaims(token).getExpiration().before(new Date());
+        return valid;
+    }
+
+    @Benchmark
+    public Object singleParseCached() throws Exception {
+        request.removeAttribute(filter.getClass().getName() + ".FILTERED");
+        filter.doFilter(request, response, NOOP_CHAIN);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+}
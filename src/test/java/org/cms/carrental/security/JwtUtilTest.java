@@ -0,0 +1,107 @@
+package org.cms.carrental.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.cms.carrental.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final long EXPIRATION = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(now::get);
+        ReflectionTestUtils.setField(jwtUtil, "secret", "testSecretKeyForJWTTokenGenerationMustBeLongEnoughForHS256");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", EXPIRATION);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 100);
+        jwtUtil.init();
+    }
+
+    @Test
+    void verifiedTokenIsServedFromCacheUntilItExpires() {
+        String token = jwtUtil.generateToken(7L, "user@test.com", User.Role.USER, 3);
+
+        Claims first = jwtUtil.verify(token);
+        assertThat(first).isNotNull();
+        assertThat(first.getSubject()).isEqualTo("user@test.com");
+        assertThat(jwtUtil.cachedTokenCount()).isEqualTo(1);
+        // İkinci doğrulama parse etmez, önbellekteki claims döner
+        assertThat(jwtUtil.verify(token)).isSameAs(first);
+
+        now.addAndGet(EXPIRATION - 1_000);
+        assertThat(jwtUtil.verify(token)).isSameAs(first);
+
+        // Süre doldu: önbellekten düşer, parser da reddeder
+        now.addAndGet(1_001);
+        assertThat(jwtUtil.verify(token)).isNull();
+        assertThat(jwtUtil.cachedTokenCount()).isZero();
+    }
+
+    @Test
+    void tamperedTokenIsRejectedAndNotCached() {
+        String token = jwtUtil.generateToken(7L, "user@test.com", User.Role.USER, 0);
+        String[] parts = token.split("\\.");
+
+        // Payload'da rol yükseltme, imza aynı
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("\"USER\"", "\"ADMIN\"");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+        // İmzanın ilk karakteri değişti (son karakter base64 dolgu bitlerine düşebilir)
+        String badSignature = parts[0] + "." + parts[1] + "."
+                + (parts[2].charAt(0) == 'A' ? 'B' : 'A') + parts[2].substring(1);
+
+        assertThat(jwtUtil.verify(forged)).isNull();
+        assertThat(jwtUtil.verify(badSignature)).isNull();
+        assertThat(jwtUtil.verify("not-a-jwt")).isNull();
+        assertThat(jwtUtil.cachedTokenCount()).isZero();
+
+        // Asıl token ise doğrulanır
+        assertThat(jwtUtil.verify(token)).isNotNull();
+        assertThat(jwtUtil.cachedTokenCount()).isEqualTo(1);
+    }
+
+    @Test
+    void principalComesFromClaims() {
+        Claims claims = jwtUtil.verify(jwtUtil.generateToken(7L, "admin@test.com", User.Role.ADMIN, 2));
+
+        assertThat(jwtUtil.toPrincipal(claims))
+                .isEqualTo(new AuthenticatedUser(7L, "admin@test.com", User.Role.ADMIN));
+        assertThat(jwtUtil.epochOf(claims)).isEqualTo(2);
+    }
+
+    @Test
+    void tokenWithoutValidEpochHasNoPrincipal() {
+        // Eksik epoch -1 sayılsaydı silinmiş kullanıcının REVOKED değeriyle eşleşirdi
+        for (Object epoch : new Object[]{null, "0", 1.5, -1, (long) Integer.MAX_VALUE + 1}) {
+            Claims claims = claims(epoch);
+            assertThat(jwtUtil.toPrincipal(claims)).as("epoch %s", epoch).isNull();
+            assertThatThrownBy(() -> jwtUtil.epochOf(claims)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        assertThat(jwtUtil.toPrincipal(claims(0L))).isNotNull();
+        assertThat(jwtUtil.epochOf(claims(0L))).isZero();
+    }
+
+    private static Claims claims(Object epoch) {
+        return Jwts.claims()
+                .subject("user@test.com")
+                .add(JwtUtil.CLAIM_USER_ID, 7L)
+                .add(JwtUtil.CLAIM_ROLE, "USER")
+                .add(JwtUtil.CLAIM_EPOCH, epoch)
+                .build();
+    }
+}
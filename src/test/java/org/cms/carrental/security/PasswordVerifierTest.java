@@ -0,0 +1,87 @@
+package org.cms.carrental.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cms.carrental.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordVerifierTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordVerifier verifier;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (verifier != null) {
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    void matchesOnlyWhenUserExistsAndPasswordIsCorrect() throws Exception {
+        verifier = new PasswordVerifier(new BlockingEncoder(null), registry, 2, 4, Duration.ofSeconds(1));
+
+        assertThat(verifier.verify("secret", "{test}secret").get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(verifier.verify("wrong", "{test}secret").get(5, TimeUnit.SECONDS)).isFalse();
+        // Kullanıcı yok: sahte hash ile doğrulama yapılır ama sonuç her zaman false
+        assertThat(verifier.verify("secret", null).get(5, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    void rejectsWithRetryAfterWhenPoolAndQueueAreFull() {
+        verifier = new PasswordVerifier(new BlockingEncoder(release), registry, 1, 1, Duration.ofSeconds(2));
+
+        CompletableFuture<Boolean> running = verifier.verify("secret", "{test}secret");
+        CompletableFuture<Boolean> queued = verifier.verify("secret", "{test}secret");
+
+        assertThatThrownBy(() -> verifier.verify("secret", "{test}secret"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .satisfies(e -> assertThat(((ServiceUnavailableException) e).getRetryAfter())
+                        .isEqualTo(Duration.ofSeconds(2)));
+        assertThat(registry.counter("security.login.rejected").count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.join()).isTrue();
+        assertThat(queued.join()).isTrue();
+    }
+
+    /**
+     * "{test}" + şifre biçiminde hash; latch verilmişse matches açılana kadar bekler
+     */
+    private static final class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch latch;
+
+        BlockingEncoder(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{test}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
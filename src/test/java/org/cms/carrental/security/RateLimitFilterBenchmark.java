@@ -0,0 +1,143 @@
+package org.cms.carrental.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.cms.carrental.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitFilter'ın izin verilen yoldaki maliyeti - filtresiz zincir çağrısına göre fark.
+ *
+ * Limitler hiç dolmayacak kadar yüksek; her thread kendi istemcisi (IP / kullanıcı) olarak istek atar.
+ * limiterOnly mock istek/cevap nesnelerinin maliyeti olmadan sadece kova kontrolünü ölçer.
+ * Eşzamanlı istemciler için -t ile thread sayısı verilebilir.
+ * Çalıştırma: mvn -Pbenchmark test-compile exec:exec -Djmh.args="RateLimitFilterBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        RateLimitFilter filter;
+        RateLimiter limiter;
+        JwtUtil jwtUtil;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            jwtUtil = new JwtUtil();
+            ReflectionTestUtils.setField(jwtUtil, "secret", "benchmarkSecretKeyForJWTTokenGenerationMustBeLongEnough");
+            ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+            ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 10_000);
+            jwtUtil.init();
+
+            RateLimitProperties.Route login = new RateLimitProperties.Route();
+            login.setName("login");
+            login.setPattern("/auth/login");
+            login.setMethods(List.of("POST"));
+            login.setLimit(Integer.MAX_VALUE);
+            login.setPeriod(Duration.ofNanos(Integer.MAX_VALUE));
+            RateLimitProperties.Route currency = new RateLimitProperties.Route();
+            currency.setName("currency");
+            currency.setPattern("/currency/**");
+            currency.setLimit(Integer.MAX_VALUE);
+            currency.setPeriod(Duration.ofNanos(Integer.MAX_VALUE));
+            RateLimitProperties properties = new RateLimitProperties();
+            properties.setRoutes(List.of(login, currency));
+            limiter = new RateLimiter(Integer.MAX_VALUE, Integer.MAX_VALUE, 0);
+            filter = new RateLimitFilter(properties, jwtUtil, Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+
+        String key;
+        MockHttpServletRequest anonymous;
+        MockHttpServletRequest user;
+        MockHttpServletRequest unmatched;
+        MockHttpServletResponse response;
+
+        @Setup(Level.Trial)
+        public void setUp(Filter filter) {
+            String ip = "10.0." + ThreadLocalRandom.current().nextInt(256) + "." + ThreadLocalRandom.current().nextInt(256);
+            String token = filter.jwtUtil.generateToken(ThreadLocalRandom.current().nextLong(1, 1_000_000),
+                    "bench@test.com", User.Role.USER, 0);
+            key = "ip:" + ip;
+            anonymous = request("/api/currency/rates/USD", ip, null);
+            user = request("/api/currency/rates/USD", ip, token);
+            unmatched = request("/api/cars", ip, null);
+            response = new MockHttpServletResponse();
+        }
+
+        private static MockHttpServletRequest request(String uri, String ip, String token) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+            request.setContextPath("/api");
+            request.setRemoteAddr(ip);
+            if (token != null) {
+                request.addHeader("Authorization", "Bearer " + token);
+            }
+            return request;
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse noFilter(Requests requests) throws Exception {
+        NOOP_CHAIN.doFilter(requests.anonymous, requests.response);
+        return requests.response;
+    }
+
+    @Benchmark
+    public long limiterOnly(Filter filter, Requests requests) {
+        return filter.limiter.tryAcquire(requests.key, System.nanoTime());
+    }
+
+    @Benchmark
+    public MockHttpServletResponse unmatchedRoute(Filter filter, Requests requests) throws Exception {
+        return run(filter, requests.unmatched, requests.response);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse allowedByIp(Filter filter, Requests requests) throws Exception {
+        return run(filter, requests.anonymous, requests.response);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse allowedByUser(Filter filter, Requests requests) throws Exception {
+        return run(filter, requests.user, requests.response);
+    }
+
+    private static MockHttpServletResponse run(Filter filter, MockHttpServletRequest request,
+                                               MockHttpServletResponse response) throws Exception {
+        // OncePerRequestFilter işaretini temizle - aynı istek nesnesi tekrar kullanılıyor
+        request.removeAttribute(RateLimitFilter.class.getName() + ".FILTERED");
+        filter.filter.doFilter(request, response, NOOP_CHAIN);
+        return response;
+    }
+}
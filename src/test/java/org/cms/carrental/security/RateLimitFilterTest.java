@@ -0,0 +1,142 @@
+package org.cms.carrental.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cms.carrental.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JwtUtil jwtUtil;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "testSecretKeyForJWTTokenGenerationMustBeLongEnoughForHS256");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 100);
+        jwtUtil.init();
+
+        RateLimitProperties properties = new RateLimitProperties();
+        // Dakikada 10 istek (6 sn'de bir), art arda 2
+        properties.setRoutes(List.of(
+                route("login", "/auth/login", List.of("POST"), 10, 2),
+                route("currency", "/currency/**", List.of(), 10, 2)));
+        filter = new RateLimitFilter(properties, jwtUtil, Jackson2ObjectMapperBuilder.json().build(), registry);
+    }
+
+    @Test
+    void rejectsOverLimitWith429AndRetryAfter() throws Exception {
+        MockHttpServletResponse first = login("10.0.0.1", null);
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getHeader(RateLimitFilter.LIMIT_HEADER)).isEqualTo("2");
+        assertThat(first.getHeader(RateLimitFilter.REMAINING_HEADER)).isEqualTo("1");
+        assertThat(login("10.0.0.1", null).getHeader(RateLimitFilter.REMAINING_HEADER)).isEqualTo("0");
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/auth/login", "10.0.0.1", null), rejected, chain);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("6");
+        assertThat(rejected.getHeader(RateLimitFilter.LIMIT_HEADER)).isEqualTo("2");
+        assertThat(rejected.getHeader(RateLimitFilter.REMAINING_HEADER)).isEqualTo("0");
+        assertThat(rejected.getContentAsString()).contains("\"status\":429", "/api/auth/login");
+        // Reddedilen istek zincire geçmez
+        assertThat(chain.getRequest()).isNull();
+        assertThat(registry.get("http.ratelimit.rejected").tag("route", "login").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void matchesRoutesByMethodAndPathUnderContextPath() throws Exception {
+        // Metod uymuyor: login kuralı sadece POST
+        assertThat(send("GET", "/api/auth/login", "10.0.0.1", null).getHeader(RateLimitFilter.LIMIT_HEADER)).isNull();
+        // Kural dışı yol
+        assertThat(send("GET", "/api/cars", "10.0.0.1", null).getHeader(RateLimitFilter.LIMIT_HEADER)).isNull();
+        // Metod listesi boş: her metod, alt yollar dahil
+        assertThat(send("GET", "/api/currency/rates/USD", "10.0.0.1", null).getHeader(RateLimitFilter.LIMIT_HEADER))
+                .isEqualTo("2");
+        assertThat(send("POST", "/api/currency/convert", "10.0.0.1", null).getHeader(RateLimitFilter.REMAINING_HEADER))
+                .isEqualTo("0");
+        // Kurallar ayrı kovalar tutar
+        assertThat(login("10.0.0.1", null).getHeader(RateLimitFilter.REMAINING_HEADER)).isEqualTo("1");
+        // OPTIONS (CORS preflight) hiç sayılmaz
+        assertThat(send("OPTIONS", "/api/currency/rates/USD", "10.0.0.1", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void keysByUserWhenTokenIsValidOtherwiseByIp() throws Exception {
+        String alice = jwtUtil.generateToken(1L, "alice@test.com", User.Role.USER, 0);
+        String bob = jwtUtil.generateToken(2L, "bob@test.com", User.Role.USER, 0);
+
+        login("10.0.0.1", alice);
+        login("10.0.0.1", alice);
+        // Aynı kullanıcı başka IP'den: kova kullanıcıya ait
+        assertThat(login("10.0.0.2", alice).getStatus()).isEqualTo(429);
+        // Aynı IP'den başka kullanıcı ve token'sız istek etkilenmez
+        assertThat(login("10.0.0.1", bob).getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.1", null).getStatus()).isEqualTo(200);
+
+        // Geçersiz token IP'ye düşer: 10.0.0.1 kovasında bir hak kaldı
+        assertThat(login("10.0.0.1", "not-a-jwt").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.1", null).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void disabledFilterPassesEverything() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(false);
+        properties.setRoutes(List.of(route("login", "/auth/login", List.of("POST"), 1, 1)));
+        filter = new RateLimitFilter(properties, jwtUtil, Jackson2ObjectMapperBuilder.json().build(), registry);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = login("10.0.0.1", null);
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader(RateLimitFilter.LIMIT_HEADER)).isNull();
+        }
+    }
+
+    private MockHttpServletResponse login(String ip, String token) throws Exception {
+        return send("POST", "/api/auth/login", ip, token);
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String ip, String token) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri, ip, token), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String ip, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setContextPath("/api");
+        request.setRemoteAddr(ip);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private static RateLimitProperties.Route route(String name, String pattern, List<String> methods,
+                                                   int limit, int burst) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setName(name);
+        route.setPattern(pattern);
+        route.setMethods(methods);
+        route.setLimit(limit);
+        route.setPeriod(Duration.ofMinutes(1));
+        route.setBurst(burst);
+        return route;
+    }
+}
@@ -0,0 +1,52 @@
+package org.cms.carrental.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void allowsBurstThenRejectsWithWaitTime() {
+        // Dakikada 10 istek (6 sn'de bir), art arda 5
+        RateLimiter limiter = new RateLimiter(10, MINUTE, 5);
+        long now = 1_000L;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("ip:1", now)).isEqualTo(4 - i);
+        }
+        long rejected = limiter.tryAcquire("ip:1", now);
+        assertThat(rejected).isNegative();
+        assertThat(-rejected).isEqualTo(TimeUnit.SECONDS.toNanos(6));
+
+        // Başka bir istemci etkilenmez
+        assertThat(limiter.tryAcquire("ip:2", now)).isEqualTo(4);
+
+        // Bir aralık sonra tek bir istek hakkı geri gelir
+        now += TimeUnit.SECONDS.toNanos(6);
+        assertThat(limiter.tryAcquire("ip:1", now)).isZero();
+        assertThat(limiter.tryAcquire("ip:1", now)).isNegative();
+    }
+
+    @Test
+    void sweepEvictsOnlyRefilledBuckets() {
+        RateLimiter limiter = new RateLimiter(60, MINUTE, 10);
+        long now = 0L;
+        limiter.tryAcquire("idle", now);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("busy", now);
+        }
+
+        // 1 sn sonra "idle" kovası dolmuştur, "busy" hâlâ 9 istek geride
+        now += TimeUnit.SECONDS.toNanos(1);
+        assertThat(limiter.sweep(now)).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+
+        // Silinen kova yeni bir istemci gibi davranır
+        assertThat(limiter.tryAcquire("idle", now)).isEqualTo(9);
+    }
+}
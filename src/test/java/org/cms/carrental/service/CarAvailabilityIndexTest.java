@@ -0,0 +1,317 @@
+package org.cms.carrental.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cms.carrental.config.RecentWriters;
+import org.cms.carrental.dto.CarDto;
+import org.cms.carrental.dto.ReservationDto;
+import org.cms.carrental.entity.Car;
+import org.cms.carrental.entity.Category;
+import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.repository.CarRepository;
+import org.cms.carrental.repository.CategoryRepository;
+import org.cms.carrental.repository.ReservationRepository;
+import org.cms.carrental.repository.UserRepository;
+import org.cms.carrental.repository.projection.ReservationWindow;
+import org.cms.carrental.security.PrincipalCache;
+import org.cms.carrental.security.TokenEpochRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.cms.carrental.support.TestFixtures.car;
+import static org.cms.carrental.support.TestFixtures.category;
+import static org.cms.carrental.support.TestFixtures.user;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Müsaitlik indeksi - aralık uçları ve servislerin commit sonrası uyguladığı güncellemeler.
+ * Servis çağrıları kendi transaction'larını commit eder; test transaction'ı açılmaz.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:availability;MODE=MySQL;NON_KEYWORDS=DAY,YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CarAvailabilityIndex.class, ReservationService.class, CarService.class, UserService.class,
+        ReservationAdmission.class, ReservationSlots.class, CarCatalogIndex.class, RecentWriters.class,
+        TokenEpochRegistry.class, PrincipalCache.class, IndexSynchronizer.class, CarAvailabilityIndexTest.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CarAvailabilityIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 6, 10);
+
+    @TestConfiguration
+    static class Beans {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return NoOpPasswordEncoder.getInstance();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private CarAvailabilityIndex index;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private IndexSynchronizer indexSynchronizer;
+
+    @Autowired
+    private CarCatalogIndex catalogIndex;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long carId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(category());
+        userId = userRepository.save(user()).getId();
+        carId = carRepository.save(car(category)).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM reservation_days");
+        jdbcTemplate.update("DELETE FROM reservations");
+        jdbcTemplate.update("DELETE FROM cars");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void rangesAreInclusiveAtBothEnds() {
+        CarAvailabilityIndex.CarIntervals intervals = CarAvailabilityIndex.CarIntervals.EMPTY
+                .with(window(1L, DAY, DAY.plusDays(2)));
+
+        // Başlangıç ve bitiş günü dolu
+        assertThat(intervals.overlaps(day(DAY), day(DAY))).isTrue();
+        assertThat(intervals.overlaps(day(DAY.plusDays(2)), day(DAY.plusDays(2)))).isTrue();
+        assertThat(intervals.overlaps(day(DAY.minusDays(3)), day(DAY))).isTrue();
+        assertThat(intervals.overlaps(day(DAY.plusDays(2)), day(DAY.plusDays(5)))).isTrue();
+        // Bitişik aralıklar çakışmaz
+        assertThat(intervals.overlaps(day(DAY.minusDays(3)), day(DAY.minusDays(1)))).isFalse();
+        assertThat(intervals.overlaps(day(DAY.plusDays(3)), day(DAY.plusDays(5)))).isFalse();
+    }
+
+    @Test
+    void sameDayReservationAndRemoval() {
+        CarAvailabilityIndex.CarIntervals intervals = CarAvailabilityIndex.CarIntervals.EMPTY
+                .with(window(1L, DAY, DAY))
+                .with(window(2L, DAY.plusDays(1), DAY.plusDays(1)));
+
+        assertThat(intervals.overlaps(day(DAY), day(DAY))).isTrue();
+        assertThat(intervals.overlaps(day(DAY.minusDays(1)), day(DAY.minusDays(1)))).isFalse();
+
+        CarAvailabilityIndex.CarIntervals removed = intervals.without(1L);
+        assertThat(removed.overlaps(day(DAY), day(DAY))).isFalse();
+        assertThat(removed.overlaps(day(DAY.plusDays(1)), day(DAY.plusDays(1)))).isTrue();
+        assertThat(removed.without(2L).isEmpty()).isTrue();
+        // Olmayan id'yi çıkarmak aynı nesneyi döndürür
+        assertThat(removed.without(99L)).isSameAs(removed);
+    }
+
+    @Test
+    void longEarlierRangeCoversLaterQueries() {
+        // Sıralamada arkada kalan kısa aralık, öndeki uzun aralığı gizlememeli (maxEnds)
+        CarAvailabilityIndex.CarIntervals intervals = CarAvailabilityIndex.CarIntervals.EMPTY
+                .with(window(1L, DAY, DAY.plusDays(30)))
+                .with(window(2L, DAY.plusDays(5), DAY.plusDays(6)));
+
+        assertThat(intervals.overlaps(day(DAY.plusDays(20)), day(DAY.plusDays(21)))).isTrue();
+        assertThat(intervals.without(1L).overlaps(day(DAY.plusDays(20)), day(DAY.plusDays(21)))).isFalse();
+    }
+
+    @Test
+    void carsMarkedWhileDrainingAreReloaded() {
+        ReservationRepository repository = mock(ReservationRepository.class);
+        CarAvailabilityIndex loadingIndex = new CarAvailabilityIndex(repository);
+        ReservationWindow first = new ReservationWindow(1L, 1L, DAY, DAY.plusDays(1));
+        ReservationWindow second = new ReservationWindow(2L, 2L, DAY, DAY.plusDays(1));
+
+        // Yükleme sorgusu sırasında araç 1 değişir; onun yeniden okunması sırasında da araç 2
+        when(repository.findActiveWindows()).thenAnswer(inv -> {
+            loadingIndex.onReservationDeleted(reservation(1L, 1L));
+            return List.of();
+        });
+        when(repository.findActiveWindowsByCarId(1L)).thenAnswer(inv -> {
+            loadingIndex.onReservationDeleted(reservation(2L, 2L));
+            return List.of(first);
+        });
+        when(repository.findActiveWindowsByCarId(2L)).thenReturn(List.of(second));
+
+        loadingIndex.load();
+
+        assertThat(loadingIndex.isFree(1L, DAY, DAY)).isFalse();
+        assertThat(loadingIndex.isFree(2L, DAY, DAY)).isFalse();
+        verify(repository).findActiveWindowsByCarId(2L);
+    }
+
+    @Test
+    void createIsAppliedOnlyAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            reservationService.createReservation(request(DAY, DAY.plusDays(2)));
+            assertThat(index.isFree(carId, DAY, DAY)).isTrue();
+        });
+        assertThat(index.isFree(carId, DAY, DAY)).isFalse();
+
+        // Geri alınan rezervasyon indekse hiç girmez
+        transactionTemplate.executeWithoutResult(status -> {
+            reservationService.createReservation(request(DAY.plusDays(5), DAY.plusDays(6)));
+            status.setRollbackOnly();
+        });
+        assertThat(index.isFree(carId, DAY.plusDays(5), DAY.plusDays(6))).isTrue();
+    }
+
+    @Test
+    void cancelFreesAndConfirmFromCancelledBooksAgain() {
+        Long id = reservationService.createReservation(request(DAY, DAY.plusDays(2))).getId();
+
+        reservationService.cancelReservation(id);
+        assertThat(index.isFree(carId, DAY, DAY.plusDays(2))).isTrue();
+
+        reservationService.confirmReservation(id);
+        assertThat(index.isFree(carId, DAY.plusDays(2), DAY.plusDays(2))).isFalse();
+
+        reservationService.deleteReservation(id);
+        assertThat(index.isFree(carId, DAY, DAY.plusDays(2))).isTrue();
+    }
+
+    @Test
+    void carDeleteDropsItsReservations() {
+        reservationService.createReservation(request(DAY, DAY.plusDays(2)));
+
+        carService.deleteCar(carId);
+
+        assertThat(index.isFree(carId, DAY, DAY.plusDays(2))).isTrue();
+        assertThat(index.occupancy(carId, DAY, 3)).containsExactly(0L);
+    }
+
+    @Test
+    void userDeleteDropsOnlyThatUsersReservations() {
+        Long otherUserId = userRepository.save(user("other@test.com")).getId();
+        reservationService.createReservation(request(DAY, DAY.plusDays(2)));
+        ReservationDto other = request(DAY.plusDays(4), DAY.plusDays(5));
+        other.setUserId(otherUserId);
+        reservationService.createReservation(other);
+
+        userService.deleteUser(userId);
+
+        assertThat(index.isFree(carId, DAY, DAY.plusDays(2))).isTrue();
+        assertThat(index.isFree(carId, DAY.plusDays(4), DAY.plusDays(4))).isFalse();
+    }
+
+    @Test
+    void writesFromAnotherInstanceArriveOnSync() {
+        indexSynchronizer.sync();
+        // Başka instance'ın yazmaları: repository'ye doğrudan, bu instance'ın commit sonrası kancaları çalışmaz
+        Reservation booked = new Reservation();
+        booked.setUser(userRepository.findById(userId).orElseThrow());
+        booked.setCar(carRepository.findById(carId).orElseThrow());
+        booked.setStartDate(DAY);
+        booked.setEndDate(DAY.plusDays(2));
+        booked.setTotalPrice(3000.0);
+        booked.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        reservationRepository.save(booked);
+        Car added = car(carRepository.findById(carId).orElseThrow().getCategory(), "34 TST 2");
+        added.setBrand("Other");
+        carRepository.save(added);
+        assertThat(index.isFree(carId, DAY, DAY)).isTrue();
+
+        indexSynchronizer.sync();
+        assertThat(index.isFree(carId, DAY, DAY)).isFalse();
+        assertThat(catalogIndex.search(Map.of(CarCatalogIndex.BRAND, List.of("Other")), null, null, false).cars())
+                .extracting(CarDto::getPlate).containsExactly("34 TST 2");
+
+        // İptal sayıyı düşürür; sonraki tur aracı boşaltır
+        booked.setStatus(Reservation.ReservationStatus.CANCELLED);
+        reservationRepository.save(booked);
+        carRepository.deleteById(added.getId());
+        indexSynchronizer.sync();
+        assertThat(index.isFree(carId, DAY, DAY.plusDays(2))).isTrue();
+        assertThat(catalogIndex.search(Map.of(CarCatalogIndex.BRAND, List.of("Other")), null, null, false).cars())
+                .isEmpty();
+    }
+
+    private ReservationDto request(LocalDate start, LocalDate end) {
+        ReservationDto request = new ReservationDto();
+        request.setUserId(userId);
+        request.setCarId(carId);
+        request.setStartDate(start);
+        request.setEndDate(end);
+        return request;
+    }
+
+    private static Reservation reservation(Long id, Long carId) {
+        Car car = new Car();
+        car.setId(carId);
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setCar(car);
+        return reservation;
+    }
+
+    private static ReservationWindow window(long id, LocalDate start, LocalDate end) {
+        return new ReservationWindow(id, 1L, start, end);
+    }
+
+    private static int day(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+}
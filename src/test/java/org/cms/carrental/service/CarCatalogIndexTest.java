@@ -0,0 +1,112 @@
+package org.cms.carrental.service;
+
+import org.cms.carrental.dto.CarDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.groups.Tuple.tuple;
+
+class CarCatalogIndexTest {
+
+    private CarCatalogIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CarCatalogIndex();
+        index.rebuild(List.of(
+                car(1L, "Toyota", "Diesel", 800.0),
+                car(2L, "Toyota", "Gasoline", 1000.0),
+                car(3L, "BMW", "Diesel", 1500.0),
+                car(4L, "BMW", "Electric", 2000.0),
+                car(5L, "Fiat", "Diesel", 600.0),
+                car(6L, "Fiat", "Gasoline", null)));
+    }
+
+    @Test
+    void facetCountsIgnoreOnlyTheirOwnMultiValueFilter() {
+        CarCatalogIndex.SearchResult result = index.search(Map.of(
+                CarCatalogIndex.BRAND, List.of("toyota", "BMW"),
+                CarCatalogIndex.FUEL_TYPE, List.of("Diesel", "electric")), null, null, true);
+
+        // Aynı facet içinde OR, facet'ler arasında AND
+        assertThat(result.cars()).extracting(CarDto::getId).containsExactly(1L, 3L, 4L);
+        // Marka sayıları sadece yakıt filtresiyle, yakıt sayıları sadece marka filtresiyle
+        assertThat(result.facetCounts().get(CarCatalogIndex.BRAND))
+                .containsOnly(entry("Toyota", 1), entry("BMW", 2), entry("Fiat", 1));
+        assertThat(result.facetCounts().get(CarCatalogIndex.FUEL_TYPE))
+                .containsOnly(entry("Diesel", 2), entry("Gasoline", 1), entry("Electric", 1));
+        assertThat(result.facetCounts().get(CarCatalogIndex.STATUS)).containsOnly(entry("AVAILABLE", 3));
+    }
+
+    @Test
+    void priceRangeIsInclusiveAndAppliesToFacetCounts() {
+        assertThat(index.search(Map.of(), 800.0, 1500.0, false).cars())
+                .extracting(CarDto::getId).containsExactly(1L, 2L, 3L);
+        assertThat(index.search(Map.of(), 1000.0, null, false).cars())
+                .extracting(CarDto::getId).containsExactly(2L, 3L, 4L);
+        assertThat(index.search(Map.of(), null, 799.0, false).cars())
+                .extracting(CarDto::getId).containsExactly(5L);
+        assertThat(index.search(Map.of(), 2000.01, null, false).cars()).isEmpty();
+        // Fiyatı olmayan araç sadece fiyat filtresi yokken döner
+        assertThat(index.search(Map.of(), null, null, false).cars()).hasSize(6);
+
+        CarCatalogIndex.SearchResult result = index.search(
+                Map.of(CarCatalogIndex.BRAND, List.of("Fiat", "Toyota")), 700.0, 1500.0, true);
+        assertThat(result.cars()).extracting(CarDto::getId).containsExactly(1L, 2L);
+        assertThat(result.facetCounts().get(CarCatalogIndex.BRAND))
+                .containsOnly(entry("Toyota", 2), entry("BMW", 1));
+    }
+
+    @Test
+    void priceRangeFollowsUpdates() {
+        CarDto updated = car(5L, "Fiat", "Diesel", 1200.0);
+        index.onCarSaved(updated);
+        index.onCarDeleted(3L);
+
+        assertThat(index.search(Map.of(), 1100.0, 1600.0, false).cars())
+                .extracting(CarDto::getId).containsExactly(5L);
+        assertThat(index.search(Map.of(), null, 700.0, false).cars()).isEmpty();
+    }
+
+    @Test
+    void returnedAndSavedCarsAreDetachedFromTheIndex() {
+        CarDto found = index.search(Map.of(CarCatalogIndex.BRAND, List.of("BMW")), null, null, false).cars().get(0);
+        found.setBrand("Changed");
+        found.setDailyPrice(1.0);
+
+        CarDto saved = car(7L, "Opel", "Diesel", 900.0);
+        index.onCarSaved(saved);
+        saved.setStatus("RENTED");
+
+        assertThat(index.search(Map.of(CarCatalogIndex.BRAND, List.of("BMW")), null, null, false).cars())
+                .extracting(CarDto::getId, CarDto::getBrand, CarDto::getDailyPrice)
+                .first().isEqualTo(tuple(3L, "BMW", 1500.0));
+        assertThat(index.search(Map.of(CarCatalogIndex.BRAND, List.of("Opel")), null, null, true))
+                .satisfies(result -> {
+                    assertThat(result.cars()).extracting(CarDto::getStatus).containsExactly("AVAILABLE");
+                    assertThat(result.facetCounts().get(CarCatalogIndex.STATUS)).containsOnly(entry("AVAILABLE", 1));
+                });
+    }
+
+    private static CarDto car(Long id, String brand, String fuelType, Double dailyPrice) {
+        CarDto car = new CarDto();
+        car.setId(id);
+        car.setBrand(brand);
+        car.setModel("Model");
+        car.setYear(2024);
+        car.setPlate("34 TST " + id);
+        car.setDailyPrice(dailyPrice);
+        car.setStatus("AVAILABLE");
+        car.setFuelType(fuelType);
+        car.setTransmissionType("AUTOMATIC");
+        car.setSeatCount(5);
+        car.setCategoryId(1L);
+        car.setCategoryName("SUV");
+        return car;
+    }
+}
@@ -0,0 +1,130 @@
+package org.cms.carrental.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.cms.carrental.dto.BulkImportResultDto;
+import org.cms.carrental.dto.CarDto;
+import org.cms.carrental.entity.Category;
+import org.cms.carrental.repository.CarRepository;
+import org.cms.carrental.repository.CategoryRepository;
+import org.cms.carrental.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.cms.carrental.support.TestFixtures.car;
+import static org.cms.carrental.support.TestFixtures.category;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Toplu içe aktarma - başarısız parça satır satır yeniden denenir, sadece hatalı satırlar raporlanır.
+ * Parçalar kendi transaction'larını commit eder; test transaction'ı açılmaz.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:carimport;MODE=MySQL;NON_KEYWORDS=DAY,YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CarService.class, CarAvailabilityIndex.class, ReservationSlots.class, CarCatalogIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CarImportServiceTest {
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarCatalogIndex catalogIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(category());
+        carRepository.save(car(category));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM cars");
+        jdbcTemplate.update("DELETE FROM categories");
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRow() {
+        // Plaka ön kontrolü boş döner: eşzamanlı eklenmiş plaka ancak insert'te yakalanır
+        CarRepository racingRepository = mock(CarRepository.class, delegatesTo(carRepository));
+        when(racingRepository.findExistingPlates(any())).thenReturn(List.of());
+        CarImportService importService = new CarImportService(racingRepository, categoryRepository, carService,
+                catalogIndex, Validation.buildDefaultValidatorFactory().getValidator(), transactionTemplate,
+                entityManager);
+
+        List<CarDto> rows = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            rows.add(row("34 IMP " + i, null));
+        }
+        rows.set(3, row(TestFixtures.PLATE, null));
+        // description kolonu 500 karakter; bean validation bunu yakalamaz
+        rows.set(7, row("34 IMP LONG", "x".repeat(501)));
+
+        BulkImportResultDto result = importService.importCars(rows);
+
+        assertThat(result.getImported()).isEqualTo(58);
+        assertThat(result.getErrors())
+                .extracting(BulkImportResultDto.RowError::getRow, BulkImportResultDto.RowError::getPlate,
+                        BulkImportResultDto.RowError::getMessage)
+                .containsExactly(
+                        tuple(4, "34 TST 1", "Plate already exists: 34 TST 1"),
+                        tuple(8, "34 IMP LONG", "Invalid value (too long or missing)"));
+        // İlk parçanın geçerli satırları da yazıldı
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars", Long.class)).isEqualTo(59);
+    }
+
+    private CarDto row(String plate, String description) {
+        CarDto row = new CarDto();
+        row.setBrand("Brand");
+        row.setModel("Model");
+        row.setYear(2024);
+        row.setPlate(plate);
+        row.setDescription(description);
+        row.setDailyPrice(1000.0);
+        row.setCategoryId(category.getId());
+        return row;
+    }
+}
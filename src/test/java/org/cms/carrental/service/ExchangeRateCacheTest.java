@@ -0,0 +1,131 @@
+package org.cms.carrental.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ExchangeRateCache - yerel stub provider ile
+ */
+class ExchangeRateCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ExchangeRateCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentMissesShareOneUpstreamCall() throws Exception {
+        StubProvider provider = new StubProvider();
+        provider.gate = new CountDownLatch(1);
+        cache = new ExchangeRateCache(provider, registry, Duration.ofMinutes(10), Duration.ofSeconds(5));
+
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<RateSnapshot>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(pool.submit(() -> cache.get("USD")));
+        }
+        // Tüm istekler kaçırma yoluna girsin, sonra upstream cevap versin
+        Thread.sleep(200);
+        provider.gate.countDown();
+
+        for (Future<RateSnapshot> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).rate("TRY")).isEqualTo(32.5);
+        }
+        pool.shutdown();
+
+        assertThat(provider.calls.get()).isEqualTo(1);
+        assertThat(cache.get("usd").rate("TRY")).isEqualTo(32.5);
+        assertThat(registry.get("currency.rates.cache").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("currency.rates.refresh").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void staleEntryIsServedWhileRefreshRunsInBackground() throws Exception {
+        StubProvider provider = new StubProvider();
+        cache = new ExchangeRateCache(provider, registry, Duration.ZERO, Duration.ofSeconds(5));
+        cache.get("EUR");
+
+        provider.rate = 35.0;
+        provider.gate = new CountDownLatch(1);
+
+        // Yenileme gate'te bekliyor ama eski kur hemen döner
+        assertThat(cache.get("EUR").rate("TRY")).isEqualTo(32.5);
+        provider.gate.countDown();
+        cache.refresh("EUR").get(5, TimeUnit.SECONDS);
+
+        assertThat(cache.get("EUR").rate("TRY")).isEqualTo(35.0);
+        assertThat(registry.get("currency.rates.cache").tag("result", "stale").counter().count()).isGreaterThan(0.0);
+    }
+
+    @Test
+    void seededSnapshotIsServedWithoutWaitingForUpstream() {
+        StubProvider provider = new StubProvider();
+        provider.fail = true;
+        cache = new ExchangeRateCache(provider, registry, Duration.ofMinutes(10), Duration.ofSeconds(5));
+        Instant yesterday = Instant.now().minus(Duration.ofDays(1));
+        cache.seed(RateSnapshot.of("USD", Map.of("TRY", 30.0), yesterday));
+
+        RateSnapshot snapshot = cache.get("USD");
+
+        assertThat(snapshot.rate("TRY")).isEqualTo(30.0);
+        assertThat(snapshot.asOf()).isEqualTo(yesterday);
+        assertThat(cache.getIfPresent("GBP")).isNull();
+    }
+
+    @Test
+    void missFailsWhenUpstreamFailsAndNothingIsCached() {
+        StubProvider provider = new StubProvider();
+        provider.fail = true;
+        cache = new ExchangeRateCache(provider, registry, Duration.ofMinutes(10), Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> cache.get("USD"))
+                .hasMessageContaining("Exchange rates unavailable for USD");
+        assertThat(registry.get("currency.rates.refresh").tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    private static class StubProvider implements ExchangeRateProvider {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile CountDownLatch gate;
+        volatile double rate = 32.5;
+        volatile boolean fail;
+
+        @Override
+        public RateSnapshot fetch(String base) {
+            calls.incrementAndGet();
+            CountDownLatch latch = gate;
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (fail) {
+                throw new IllegalStateException("upstream down");
+            }
+            return RateSnapshot.of(base, Map.of("TRY", rate, "USD", 1.0), Instant.now());
+        }
+    }
+}
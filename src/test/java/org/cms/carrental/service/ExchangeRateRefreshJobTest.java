@@ -0,0 +1,38 @@
+package org.cms.carrental.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExchangeRateRefreshJobTest {
+
+    @Test
+    void scheduledRefreshStopsWaitingAfterTimeout() {
+        ExchangeRateCache cache = mock(ExchangeRateCache.class);
+        ExchangeRateSnapshotStore store = mock(ExchangeRateSnapshotStore.class);
+        // Upstream hiç cevap vermiyor
+        when(cache.refresh("USD")).thenReturn(new CompletableFuture<>());
+        when(cache.bases()).thenReturn(Set.of());
+        ExchangeRateRefreshJob job = new ExchangeRateRefreshJob(cache, store);
+        ReflectionTestUtils.setField(job, "bases", List.of("usd"));
+        ReflectionTestUtils.setField(job, "refreshTimeout", Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        job.refresh();
+
+        // Scheduler thread'i serbest kalır, kaydedilecek tablo yok
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        verify(store, never()).save(any());
+    }
+}
@@ -0,0 +1,161 @@
+package org.cms.carrental.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cms.carrental.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Devre kesici + bulkhead - gecikme enjekte eden yerel sahte provider ile
+ */
+class GuardedExchangeRateProviderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void slowUpstreamOpensCircuitAndCallsFailFast() {
+        FakeProvider upstream = new FakeProvider();
+        upstream.latency = Duration.ofMillis(2);
+        CircuitBreaker breaker = breaker(3, Duration.ofMillis(1));
+        GuardedExchangeRateProvider provider = guarded(upstream, breaker, 4);
+
+        // Yavaş çağrılar sonuç döndürür ama hata sayılır
+        for (int i = 0; i < 3; i++) {
+            assertThat(provider.fetch("USD").rate("TRY")).isEqualTo(32.5);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> provider.fetch("USD")).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(upstream.calls.get()).isEqualTo(3);
+        assertThat(registry.get("currency.rates.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbeAndClosesOnSuccess() throws Exception {
+        FakeProvider upstream = new FakeProvider();
+        upstream.fail = true;
+        CircuitBreaker breaker = breaker(2, Duration.ofSeconds(5));
+        GuardedExchangeRateProvider provider = guarded(upstream, breaker, 4);
+
+        assertThatThrownBy(() -> provider.fetch("USD")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> provider.fetch("USD")).isInstanceOf(IllegalStateException.class);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // Açık kalma süresi dolsun; probe upstream'de beklerken ikinci çağrı reddedilir
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        upstream.fail = false;
+        upstream.gate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<RateSnapshot> probe = pool.submit(() -> provider.fetch("USD"));
+        awaitCalls(upstream, 3);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(() -> provider.fetch("USD")).isInstanceOf(ServiceUnavailableException.class);
+
+        upstream.gate.countDown();
+        assertThat(probe.get(5, TimeUnit.SECONDS).rate("TRY")).isEqualTo(32.5);
+        pool.shutdown();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondCapacity() throws Exception {
+        FakeProvider upstream = new FakeProvider();
+        upstream.gate = new CountDownLatch(1);
+        GuardedExchangeRateProvider provider = guarded(upstream, breaker(5, Duration.ofSeconds(5)), 1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<RateSnapshot> stalled = pool.submit(() -> provider.fetch("USD"));
+        awaitCalls(upstream, 1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> provider.fetch("EUR")).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+
+        upstream.gate.countDown();
+        stalled.get(5, TimeUnit.SECONDS);
+        pool.shutdown();
+    }
+
+    @Test
+    void cachedRatesAreServedImmediatelyWhileCircuitIsOpen() {
+        FakeProvider upstream = new FakeProvider();
+        upstream.latency = Duration.ofSeconds(10);
+        CircuitBreaker breaker = breaker(1, Duration.ofSeconds(5));
+        assertThatThrownBy(() -> breaker.call(() -> {
+            throw new IllegalStateException("stalled");
+        })).isInstanceOf(IllegalStateException.class);
+        ExchangeRateCache cache = new ExchangeRateCache(guarded(upstream, breaker, 4), registry,
+                Duration.ofMinutes(10), Duration.ofSeconds(5));
+        try {
+            cache.seed(RateSnapshot.of("USD", Map.of("TRY", 30.0), Instant.now().minus(Duration.ofHours(2))));
+
+            long start = System.nanoTime();
+            assertThat(cache.get("USD").rate("TRY")).isEqualTo(30.0);
+            assertThatThrownBy(() -> cache.get("EUR")).isInstanceOf(ServiceUnavailableException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+            assertThat(upstream.calls.get()).isZero();
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    private CircuitBreaker breaker(int failureThreshold, Duration slowCall) {
+        return new CircuitBreaker("test", failureThreshold, Duration.ofSeconds(30), slowCall, clock::get);
+    }
+
+    private GuardedExchangeRateProvider guarded(FakeProvider upstream, CircuitBreaker breaker, int maxConcurrent) {
+        return new GuardedExchangeRateProvider(upstream, registry, breaker,
+                new Bulkhead("test", maxConcurrent, Duration.ZERO));
+    }
+
+    private static void awaitCalls(FakeProvider upstream, int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (upstream.calls.get() < calls && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(upstream.calls.get()).isEqualTo(calls);
+    }
+
+    /**
+     * Gecikmeyi gerçek saat yerine test saatine ekler; gate verilirse serbest bırakılana kadar bekler
+     */
+    private class FakeProvider implements ExchangeRateProvider {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile Duration latency = Duration.ZERO;
+        volatile CountDownLatch gate;
+        volatile boolean fail;
+
+        @Override
+        public RateSnapshot fetch(String base) {
+            calls.incrementAndGet();
+            clock.addAndGet(latency.toNanos());
+            CountDownLatch latch = gate;
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (fail) {
+                throw new IllegalStateException("upstream down");
+            }
+            return RateSnapshot.of(base, Map.of("TRY", 32.5), Instant.now());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.cms.carrental.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cms.carrental.dto.AuthResponse;
+import org.cms.carrental.dto.LoginRequest;
+import org.cms.carrental.entity.User;
+import org.cms.carrental.repository.UserRepository;
+import org.cms.carrental.repository.projection.UserCredentials;
+import org.cms.carrental.security.JwtUtil;
+import org.cms.carrental.security.PasswordVerifier;
+import org.cms.carrental.security.PrincipalCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login throughput'u - eski akış (BCrypt istek thread'inde + üç kullanıcı sorgusu) ile
+ * AuthService.login (PrincipalCache + PasswordVerifier havuzu) karşılaştırması.
+ *
+ * Kullanıcı sorguları gömülü H2'ye gider; threads > çekirdek sayısı bir login fırtınasını taklit eder.
+ * Çalıştırma: mvn -Pbenchmark test-compile exec:exec -Djmh.args="LoginBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class LoginBenchmark {
+
+    private static final String EMAIL = "bench@test.com";
+    private static final String PASSWORD = "secret-password";
+    private static final String SELECT_USER =
+            "SELECT id, email, password, role, token_epoch, name, phone, address, driver_license, created_at "
+                    + "FROM users WHERE email = ?";
+
+    // BCrypt maliyeti: 4 sorgu maliyetini görünür kılar, 10 uygulamadaki varsayılan
+    @Param({"4", "10"})
+    public int strength;
+
+    private JdbcTemplate jdbcTemplate;
+    private BCryptPasswordEncoder passwordEncoder;
+    private UserRepository userRepository;
+    private UserService userService;
+    private JwtUtil jwtUtil;
+    private PasswordVerifier passwordVerifier;
+    private AuthService authService;
+    private LoginRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:login-bench;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS users");
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255) UNIQUE, "
+                + "password VARCHAR(255), role VARCHAR(20), token_epoch INT, name VARCHAR(255), phone VARCHAR(255), "
+                + "address VARCHAR(255), driver_license VARCHAR(255), created_at TIMESTAMP)");
+
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        jdbcTemplate.update("INSERT INTO users VALUES (1, ?, ?, 'USER', 0, 'Bench User', '5550000000', 'Istanbul', 'B-1', ?)",
+                EMAIL, passwordEncoder.encode(PASSWORD), LocalDateTime.now());
+
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(anyString())).thenAnswer(inv -> loadUser(inv.getArgument(0)));
+        when(userRepository.findCredentialsByEmail(anyString())).thenAnswer(inv -> loadCredentials(inv.getArgument(0)));
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmarkSecretKeyForJWTTokenGenerationMustBeLongEnough");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 1000);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Login yolunda sadece convertToDto kullanılır
+        userService = new UserService(userRepository, null, null, passwordEncoder, null, null, null, null);
+        passwordVerifier = new PasswordVerifier(passwordEncoder, registry, 0, 256, Duration.ofSeconds(1));
+        PrincipalCache principalCache = new PrincipalCache(userRepository, registry, Duration.ofMinutes(5), 10_000);
+        authService = new AuthService(principalCache, userService, jwtUtil, passwordVerifier);
+
+        request = new LoginRequest();
+        request.setEmail(EMAIL);
+        request.setPassword(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordVerifier.shutdown();
+        jdbcTemplate.execute("DROP TABLE users");
+    }
+
+    /**
+     * Önceki akış: DaoAuthenticationProvider yüklemesi, BCrypt istek thread'inde,
+     * ardından findByEmail ve getUserByEmail ile iki sorgu daha.
+     */
+    @Benchmark
+    public AuthResponse inlineThreeLookups() {
+        User authenticated = userRepository.findByEmail(request.getEmail()).orElseThrow();
+        if (!passwordEncoder.matches(request.getPassword(), authenticated.getPassword())) {
+            throw new IllegalStateException("Invalid email or password");
+        }
+        User user = userRepository.findByEmail(request.getEmail()).orElseThrow();
+        String token = jwtUtil.generateToken(user);
+        return new AuthResponse(token, userService.convertToDto(userRepository.findByEmail(request.getEmail()).orElseThrow()));
+    }
+
+    @Benchmark
+    public AuthResponse cachedOffloaded() {
+        return authService.login(request).join();
+    }
+
+    private Optional<User> loadUser(String email) {
+        return jdbcTemplate.query(SELECT_USER, (rs, i) -> {
+            User user = new User();
+            user.setId(rs.getLong("id"));
+            user.setEmail(rs.getString("email"));
+            user.setPassword(rs.getString("password"));
+            user.setRole(User.Role.valueOf(rs.getString("role")));
+            user.setTokenEpoch(rs.getInt("token_epoch"));
+            user.setName(rs.getString("name"));
+            user.setPhone(rs.getString("phone"));
+            user.setAddress(rs.getString("address"));
+            user.setDriverLicense(rs.getString("driver_license"));
+            user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            return user;
+        }, email).stream().findFirst();
+    }
+
+    private Optional<UserCredentials> loadCredentials(String email) {
+        return loadUser(email).map(user -> new UserCredentials(user.getId(), user.getEmail(), user.getPassword(),
+                user.getRole(), user.getTokenEpoch(), user.getName(), user.getPhone(), user.getAddress(),
+                user.getDriverLicense(), user.getCreatedAt()));
+    }
+}
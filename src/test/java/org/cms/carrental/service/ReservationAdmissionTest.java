@@ -0,0 +1,207 @@
+package org.cms.carrental.service;
+
+import org.cms.carrental.config.RecentWriters;
+import org.cms.carrental.dto.ReservationDto;
+import org.cms.carrental.entity.Category;
+import org.cms.carrental.repository.CarRepository;
+import org.cms.carrental.repository.CategoryRepository;
+import org.cms.carrental.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.cms.carrental.support.TestFixtures.car;
+import static org.cms.carrental.support.TestFixtures.category;
+import static org.cms.carrental.support.TestFixtures.user;
+
+/**
+ * Rezervasyon kabulü eşzamanlılık testleri - gerçek ReservationService.createReservation
+ * aynı araçlar için paralel thread'lerden H2'ye karşı çalıştırılır.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:admission;MODE=MySQL;NON_KEYWORDS=DAY,YEAR;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReservationService.class, ReservationAdmission.class, ReservationSlots.class,
+        CarAvailabilityIndex.class, RecentWriters.class})
+// Her createReservation kendi transaction'ını commit eder - test transaction'ı açılmaz
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationAdmissionTest {
+
+    private static final int CARS = 4;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationSlots reservationSlots;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM reservation_days");
+        jdbcTemplate.update("DELETE FROM reservations");
+        jdbcTemplate.update("DELETE FROM cars");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    // backfilled=false: slot insert'e ek olarak aralık sorgusu da çalışır (backfill bitmeden önceki yol)
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void concurrentBookingsOfSameCarNeverOverlap(boolean backfilled) throws Exception {
+        if (backfilled) {
+            reservationSlots.backfill();
+        }
+        Long userId = createUser();
+        List<Long> carIds = createCars();
+        AtomicInteger accepted = new AtomicInteger();
+        List<String> unexpected = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    LocalDate from = FIRST_DAY.plusDays(random.nextInt(0, 60));
+                    ReservationDto request = new ReservationDto();
+                    request.setUserId(userId);
+                    request.setCarId(carIds.get(random.nextInt(CARS)));
+                    request.setStartDate(from);
+                    request.setEndDate(from.plusDays(random.nextInt(1, 5)));
+                    try {
+                        reservationService.createReservation(request);
+                        accepted.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        if (!"Car is already reserved for the selected dates".equals(e.getMessage())) {
+                            unexpected.add(e.toString());
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(accepted.get()).isPositive().isLessThan(THREADS * ATTEMPTS_PER_THREAD);
+
+        // Veritabanındaki aktif rezervasyonlar: aynı araçta iki aralık çakışmamalı (uçlar dahil)
+        List<long[]> active = jdbcTemplate.query(
+                "SELECT car_id, start_date, end_date FROM reservations WHERE status IN ('PENDING', 'CONFIRMED')",
+                (rs, i) -> new long[]{rs.getLong("car_id"),
+                        rs.getDate("start_date").toLocalDate().toEpochDay(),
+                        rs.getDate("end_date").toLocalDate().toEpochDay()});
+        assertThat(active).hasSize(accepted.get());
+        Map<Long, List<long[]>> byCar = active.stream().collect(Collectors.groupingBy(row -> row[0]));
+        for (List<long[]> windows : byCar.values()) {
+            for (int i = 0; i < windows.size(); i++) {
+                for (int j = i + 1; j < windows.size(); j++) {
+                    long[] a = windows.get(i);
+                    long[] b = windows.get(j);
+                    assertThat(a[1] <= b[2] && b[1] <= a[2])
+                            .as("double booking of car %d: %s..%s / %s..%s", a[0],
+                                    LocalDate.ofEpochDay(a[1]), LocalDate.ofEpochDay(a[2]),
+                                    LocalDate.ofEpochDay(b[1]), LocalDate.ofEpochDay(b[2]))
+                            .isFalse();
+                }
+            }
+        }
+        // Her kabul edilen rezervasyonun her günü için tam bir slot
+        long days = active.stream().mapToLong(row -> row[2] - row[1] + 1).sum();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservation_days", Long.class)).isEqualTo(days);
+    }
+
+    @Test
+    void bookingsForDifferentCarsRunInParallel() throws Exception {
+        ReservationAdmission admission = new ReservationAdmission(16);
+        long first = 1L;
+        long second = 2L;
+        while (admission.stripeIndex(second) == admission.stripeIndex(first)) {
+            second++;
+        }
+
+        // İki araç da kilidi tutarken birbirini bekler; sıralı çalışsaydı barrier zaman aşımına uğrardı
+        CyclicBarrier bothInside = new CyclicBarrier(2);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        long secondCar = second;
+        Future<Integer> a = pool.submit(() -> admission.admit(first, () -> await(bothInside)));
+        Future<Integer> b = pool.submit(() -> admission.admit(secondCar, () -> await(bothInside)));
+
+        assertThat(a.get(10, TimeUnit.SECONDS) + b.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        pool.shutdown();
+    }
+
+    private Long createUser() {
+        return userRepository.save(user()).getId();
+    }
+
+    private List<Long> createCars() {
+        Category category = categoryRepository.save(category());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < CARS; i++) {
+            ids.add(carRepository.save(car(category, "34 TST " + i)).getId());
+        }
+        return ids;
+    }
+
+    private static int await(CyclicBarrier barrier) {
+        try {
+            return barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Admission serialized different cars", e);
+        }
+    }
+}
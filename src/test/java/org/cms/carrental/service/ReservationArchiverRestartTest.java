@@ -0,0 +1,158 @@
+package org.cms.carrental.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cms.carrental.entity.Car;
+import org.cms.carrental.entity.Category;
+import org.cms.carrental.entity.Rental;
+import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.entity.User;
+import org.cms.carrental.repository.CarRepository;
+import org.cms.carrental.repository.CategoryRepository;
+import org.cms.carrental.repository.RentalRepository;
+import org.cms.carrental.repository.ReservationRepository;
+import org.cms.carrental.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.cms.carrental.support.TestFixtures.car;
+import static org.cms.carrental.support.TestFixtures.category;
+import static org.cms.carrental.support.TestFixtures.user;
+
+/**
+ * Arşivleme parçaları gerçekten commit edilir - yarıda kalan çalıştırma sonrası önceki parçalar
+ * arşivde kalır, sonraki çalıştırma işi bitirir. Test transaction'ı açılmaz.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archiverrestart;MODE=MySQL;NON_KEYWORDS=DAY,YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationArchiverRestartTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    private ReservationArchiver archiver;
+    private User user;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        // batch-size 2: beş rezervasyon üç parça
+        archiver = new ReservationArchiver(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry(),
+                true, Duration.ofDays(730), 2);
+
+        Category category = categoryRepository.save(category());
+        user = userRepository.save(user());
+        car = carRepository.save(car(category));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM rentals_history");
+        jdbcTemplate.update("DELETE FROM reservations_history");
+        jdbcTemplate.update("DELETE FROM rentals");
+        jdbcTemplate.update("DELETE FROM reservation_days");
+        jdbcTemplate.update("DELETE FROM reservations");
+        jdbcTemplate.update("DELETE FROM cars");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void failedChunkKeepsEarlierChunksAndNextRunFinishes() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(reservation(LocalDate.of(2023, 3, 10).plusDays(i)).getId());
+        }
+        Rental rental = rental(reservationRepository.findById(ids.get(2)).orElseThrow());
+        // Arşivde aynı id'li kiralama: ikinci parça rezervasyonları kopyaladıktan sonra kiralamada patlar
+        jdbcTemplate.update("INSERT INTO rentals_history (id, pickup_date, status, created_at, reservation_id, "
+                        + "archive_month, archived_at) VALUES (?, ?, 'RETURNED', ?, 0, 202301, ?)",
+                rental.getId(), LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+
+        assertThatThrownBy(() -> archiver.archive(CUTOFF)).isInstanceOf(DataIntegrityViolationException.class);
+
+        // İlk parça commit edildi; başarısız parçanın rezervasyon kopyası geri alındı
+        assertThat(ids("reservations_history")).containsExactly(ids.get(0), ids.get(1));
+        assertThat(ids("reservations")).containsExactly(ids.get(2), ids.get(3), ids.get(4));
+        assertThat(ids("rentals")).containsExactly(rental.getId());
+
+        jdbcTemplate.update("DELETE FROM rentals_history");
+        assertThat(archiver.archive(CUTOFF)).isEqualTo(3);
+
+        assertThat(ids("reservations_history")).containsExactlyElementsOf(ids);
+        assertThat(ids("reservations")).isEmpty();
+        assertThat(ids("rentals")).isEmpty();
+        assertThat(ids("rentals_history")).containsExactly(rental.getId());
+    }
+
+    private Reservation reservation(LocalDate end) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setCar(car);
+        reservation.setStartDate(end.minusDays(3));
+        reservation.setEndDate(end);
+        reservation.setTotalPrice(3000.0);
+        reservation.setStatus(Reservation.ReservationStatus.COMPLETED);
+        return reservationRepository.save(reservation);
+    }
+
+    private Rental rental(Reservation reservation) {
+        Rental rental = new Rental();
+        rental.setReservation(reservation);
+        rental.setPickupDate(reservation.getStartDate().atTime(10, 0));
+        rental.setReturnDate(reservation.getEndDate().atTime(12, 0));
+        rental.setActualReturnDate(reservation.getEndDate().atTime(11, 0));
+        rental.setStatus(Rental.RentalStatus.RETURNED);
+        return rentalRepository.save(rental);
+    }
+
+    private List<Long> ids(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class);
+    }
+}
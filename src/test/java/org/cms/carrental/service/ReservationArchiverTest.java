@@ -0,0 +1,156 @@
+package org.cms.carrental.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cms.carrental.entity.Car;
+import org.cms.carrental.entity.Category;
+import org.cms.carrental.entity.Rental;
+import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.entity.User;
+import org.cms.carrental.repository.RentalHistoryRepository;
+import org.cms.carrental.repository.ReservationHistoryRepository;
+import org.cms.carrental.repository.projection.RentalRow;
+import org.cms.carrental.repository.projection.ReservationRow;
+import org.cms.carrental.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.cms.carrental.support.TestFixtures.car;
+import static org.cms.carrental.support.TestFixtures.category;
+import static org.cms.carrental.support.TestFixtures.user;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archiver;MODE=MySQL;NON_KEYWORDS=DAY,YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReservationArchiverTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReservationHistoryRepository reservationHistoryRepository;
+
+    @Autowired
+    private RentalHistoryRepository rentalHistoryRepository;
+
+    private ReservationArchiver archiver;
+    private User user;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        // batch-size 2: birden fazla parça
+        archiver = new ReservationArchiver(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry(),
+                true, Duration.ofDays(730), 2);
+
+        Category category = em.persist(category());
+        user = em.persist(user());
+        car = em.persist(car(category));
+    }
+
+    @Test
+    void movesOnlyOldFinishedReservationsWithTheirRentals() {
+        Reservation completed = reservation(LocalDate.of(2023, 3, 10), Reservation.ReservationStatus.COMPLETED);
+        rental(completed);
+        reservation(LocalDate.of(2023, 5, 1), Reservation.ReservationStatus.CANCELLED);
+        reservation(LocalDate.of(2023, 11, 20), Reservation.ReservationStatus.COMPLETED);
+        // Eski ama bitmemiş ve yeni bitmiş olanlar sıcak tabloda kalır
+        reservation(LocalDate.of(2023, 6, 1), Reservation.ReservationStatus.CONFIRMED);
+        reservation(LocalDate.of(2024, 3, 1), Reservation.ReservationStatus.COMPLETED);
+        em.flush();
+
+        assertThat(archiver.archive(CUTOFF)).isEqualTo(3);
+
+        assertThat(count("reservations")).isEqualTo(2);
+        assertThat(count("rentals")).isZero();
+        assertThat(count("reservations_history")).isEqualTo(3);
+        assertThat(count("rentals_history")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT archive_month FROM reservations_history WHERE id = ?",
+                Integer.class, completed.getId())).isEqualTo(202303);
+
+        // Tekrar çalıştırmak bir şey taşımaz
+        assertThat(archiver.archive(CUTOFF)).isZero();
+        assertThat(count("reservations_history")).isEqualTo(3);
+    }
+
+    @Test
+    void archivedRowsMatchHotRowShape() {
+        Reservation completed = reservation(LocalDate.of(2023, 3, 10), Reservation.ReservationStatus.COMPLETED);
+        Rental rental = rental(completed);
+        em.flush();
+        archiver.archive(CUTOFF);
+        em.clear();
+
+        assertThat(reservationHistoryRepository.findRowsByUserId(user.getId()))
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row.id()).isEqualTo(completed.getId());
+                    assertThat(row.userName()).isEqualTo(TestFixtures.USER_NAME);
+                    assertThat(row.carPlate()).isEqualTo(TestFixtures.PLATE);
+                    assertThat(row.status()).isEqualTo(Reservation.ReservationStatus.COMPLETED);
+                });
+        assertThat(reservationHistoryRepository.findRowsByCarId(car.getId()))
+                .extracting(ReservationRow::id).containsExactly(completed.getId());
+        assertThat(rentalHistoryRepository.findRowsByUserId(user.getId()))
+                .extracting(RentalRow::id, RentalRow::reservationId)
+                .containsExactly(tuple(rental.getId(), completed.getId()));
+
+        rentalHistoryRepository.deleteByUserId(user.getId());
+        reservationHistoryRepository.deleteByUserId(user.getId());
+        assertThat(count("reservations_history") + count("rentals_history")).isZero();
+    }
+
+    private Reservation reservation(LocalDate end, Reservation.ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setCar(car);
+        reservation.setStartDate(end.minusDays(3));
+        reservation.setEndDate(end);
+        reservation.setTotalPrice(3000.0);
+        reservation.setStatus(status);
+        em.persist(reservation);
+        return reservation;
+    }
+
+    private Rental rental(Reservation reservation) {
+        Rental rental = new Rental();
+        rental.setReservation(reservation);
+        rental.setPickupDate(reservation.getStartDate().atTime(10, 0));
+        rental.setReturnDate(reservation.getEndDate().atTime(12, 0));
+        rental.setActualReturnDate(reservation.getEndDate().atTime(11, 0));
+        rental.setStatus(Rental.RentalStatus.RETURNED);
+        em.persist(rental);
+        return rental;
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count != null ? count : 0;
+    }
+}
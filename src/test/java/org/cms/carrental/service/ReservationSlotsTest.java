@@ -0,0 +1,216 @@
+package org.cms.carrental.service;
+
+import org.cms.carrental.config.RecentWriters;
+import org.cms.carrental.dto.ReservationDto;
+import org.cms.carrental.entity.Car;
+import org.cms.carrental.entity.Category;
+import org.cms.carrental.entity.Reservation;
+import org.cms.carrental.entity.User;
+import org.cms.carrental.repository.CarRepository;
+import org.cms.carrental.repository.CategoryRepository;
+import org.cms.carrental.repository.ReservationRepository;
+import org.cms.carrental.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.cms.carrental.support.TestFixtures.car;
+import static org.cms.carrental.support.TestFixtures.category;
+import static org.cms.carrental.support.TestFixtures.user;
+
+/**
+ * reservation_days slot tablosu - gün başına tekil slot, çakışma mesajı, iptal/silmede bırakma
+ * ve backfill bitene kadar aralık sorgusunun devrede kalması.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:slots;MODE=MySQL;NON_KEYWORDS=DAY,YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReservationService.class, ReservationAdmission.class, ReservationSlots.class,
+        CarAvailabilityIndex.class, RecentWriters.class})
+// Her servis çağrısı kendi transaction'ını commit eder - test transaction'ı açılmaz
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationSlotsTest {
+
+    private static final String CONFLICT = "Car is already reserved for the selected dates";
+    private static final LocalDate DAY = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationSlots reservationSlots;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        // ApplicationReadyEvent gelmez; her test backfill bitmiş olarak başlar, gerekirse geri alır
+        ReflectionTestUtils.setField(reservationSlots, "backfilled", true);
+
+        Category category = categoryRepository.save(category());
+        user = userRepository.save(user());
+        car = carRepository.save(car(category));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM reservation_days");
+        jdbcTemplate.update("DELETE FROM reservations");
+        jdbcTemplate.update("DELETE FROM cars");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void eachDayCanBeClaimedOnce() {
+        ReservationDto first = reservationService.createReservation(request(DAY, DAY.plusDays(2)));
+        // Bitişik aralık: gün paylaşmaz
+        reservationService.createReservation(request(DAY.plusDays(3), DAY.plusDays(4)));
+
+        assertThat(slots(first.getId())).isEqualTo(3);
+        assertThat(count("reservation_days")).isEqualTo(5);
+
+        // Sadece bir gün ortak olan aralık da reddedilir
+        assertThatThrownBy(() -> reservationService.createReservation(request(DAY.minusDays(1), DAY)))
+                .hasMessage(CONFLICT);
+        assertThat(count("reservations")).isEqualTo(2);
+        assertThat(count("reservation_days")).isEqualTo(5);
+    }
+
+    @Test
+    void duplicateSlotIsReportedAsConflict() {
+        Reservation existing = legacyReservation(DAY, DAY.plusDays(1));
+        transactionTemplate.executeWithoutResult(status -> reservationSlots.claim(existing));
+        Reservation overlapping = legacyReservation(DAY.plusDays(1), DAY.plusDays(3));
+
+        // DuplicateKeyException çağırana iş mesajıyla döner; transaction'daki yarım insert'ler geri alınır
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> reservationSlots.claim(overlapping)))
+                .isExactlyInstanceOf(RuntimeException.class)
+                .hasMessage(CONFLICT);
+        assertThat(slots(existing.getId())).isEqualTo(2);
+        assertThat(slots(overlapping.getId())).isZero();
+    }
+
+    @Test
+    void cancelAndDeleteReleaseSlots() {
+        ReservationDto cancelled = reservationService.createReservation(request(DAY, DAY.plusDays(2)));
+        reservationService.cancelReservation(cancelled.getId());
+        assertThat(slots(cancelled.getId())).isZero();
+
+        ReservationDto rebooked = reservationService.createReservation(request(DAY, DAY.plusDays(2)));
+        assertThat(slots(rebooked.getId())).isEqualTo(3);
+
+        reservationService.deleteReservation(rebooked.getId());
+        assertThat(count("reservation_days")).isZero();
+        reservationService.createReservation(request(DAY.plusDays(1), DAY.plusDays(2)));
+        assertThat(count("reservation_days")).isEqualTo(2);
+    }
+
+    @Test
+    void rangeQueryGuardsUntilBackfillCompletes() {
+        ReflectionTestUtils.setField(reservationSlots, "backfilled", false);
+        // Slot tablosundan önce yazılmış aktif rezervasyon - henüz slotu yok
+        Reservation legacy = legacyReservation(DAY, DAY.plusDays(2));
+        assertThat(slots(legacy.getId())).isZero();
+
+        // Backfill beklerken aynı güne rezervasyon aralık sorgusuyla reddedilir
+        assertThatThrownBy(() -> reservationService.createReservation(request(DAY.plusDays(2), DAY.plusDays(3))))
+                .hasMessage(CONFLICT);
+        assertThat(count("reservations")).isEqualTo(1);
+        assertThat(count("reservation_days")).isZero();
+
+        // Çakışmayan rezervasyon slotunu alır, backfill onu atlar
+        ReservationDto later = reservationService.createReservation(request(DAY.plusDays(3), DAY.plusDays(4)));
+        reservationSlots.backfill();
+
+        assertThat(reservationSlots.isBackfilled()).isTrue();
+        assertThat(slots(legacy.getId())).isEqualTo(3);
+        assertThat(slots(later.getId())).isEqualTo(2);
+        // Backfill sonrası aynı çakışmayı slot anahtarı reddeder
+        assertThatThrownBy(() -> reservationService.createReservation(request(DAY.plusDays(2), DAY.plusDays(3))))
+                .hasMessage(CONFLICT);
+    }
+
+    @Test
+    void rangeQueryIsSkippedOnceBackfilled() {
+        // Bayrak açıkken çakışmayı sadece slotlar yakalar; slotu olmayan eski satır görünmez
+        Reservation legacy = legacyReservation(DAY, DAY.plusDays(2));
+
+        ReservationDto overlapping = reservationService.createReservation(request(DAY.plusDays(2), DAY.plusDays(3)));
+
+        assertThat(slots(legacy.getId())).isZero();
+        assertThat(slots(overlapping.getId())).isEqualTo(2);
+    }
+
+    private ReservationDto request(LocalDate start, LocalDate end) {
+        ReservationDto request = new ReservationDto();
+        request.setUserId(user.getId());
+        request.setCarId(car.getId());
+        request.setStartDate(start);
+        request.setEndDate(end);
+        return request;
+    }
+
+    // Servisi atlayarak yazılan aktif rezervasyon (slot almaz)
+    private Reservation legacyReservation(LocalDate start, LocalDate end) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setCar(car);
+        reservation.setStartDate(start);
+        reservation.setEndDate(end);
+        reservation.setTotalPrice(3000.0);
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        return reservationRepository.save(reservation);
+    }
+
+    private long slots(Long reservationId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservation_days WHERE reservation_id = ?", Long.class, reservationId);
+        return count != null ? count : 0;
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,54 @@
+package org.cms.carrental.support;
+
+import org.cms.carrental.entity.Car;
+import org.cms.carrental.entity.Category;
+import org.cms.carrental.entity.User;
+
+/**
+ * Testlerin ortak kategori/kullanıcı/araç verisi. Entity'ler kaydedilmeden döner;
+ * her test kendi yoluyla (TestEntityManager veya repository) yazar.
+ */
+public final class TestFixtures {
+
+    public static final String USER_NAME = "Test User";
+    public static final String USER_EMAIL = "user@test.com";
+    public static final String PLATE = "34 TST 1";
+
+    private TestFixtures() {
+    }
+
+    public static Category category() {
+        Category category = new Category();
+        category.setName("SUV");
+        return category;
+    }
+
+    public static User user() {
+        return user(USER_EMAIL);
+    }
+
+    public static User user(String email) {
+        User user = new User();
+        user.setName(USER_NAME);
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setPhone("5550000000");
+        user.setAddress("Istanbul");
+        return user;
+    }
+
+    public static Car car(Category category) {
+        return car(category, PLATE);
+    }
+
+    public static Car car(Category category, String plate) {
+        Car car = new Car();
+        car.setBrand("Brand");
+        car.setModel("Model");
+        car.setYear(2024);
+        car.setPlate(plate);
+        car.setDailyPrice(1000.0);
+        car.setCategory(category);
+        return car;
+    }
+}